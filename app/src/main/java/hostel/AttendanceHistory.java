@@ -0,0 +1,380 @@
+package hostel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+// Per-day attendance history as bitmaps indexed by a dense per-student ordinal.
+// Today's marks live uncompressed in a memory-mapped file so each mark is an in-place bit write.
+// When the date changes the day is sealed: its present and absent bitmaps are compressed and
+// appended to the history file, which is memory-mapped for queries.
+class AttendanceHistory {
+    private static final String ORDINALS_FILE = "attendance_ordinals.dat";
+    private static final String TODAY_FILE = "attendance_today.dat";
+    private static final String HISTORY_FILE = "attendance_history.dat";
+    private static final int TODAY_MAGIC = 0x48415454;
+    private static final int HISTORY_MAGIC = 0x48415448;
+    private static final int TODAY_HEADER_BYTES = 16;
+    private static final int HISTORY_HEADER_BYTES = 8;
+    private static final int DAY_HEADER_BYTES = 16;
+    private static final int INITIAL_CAPACITY_WORDS = 64;
+
+    private final File directory;
+    private final IntIntMap ordinalsByRollNumber = new IntIntMap();
+    private int[] rollNumbersByOrdinal = new int[1024];
+    private int ordinalCount;
+    private DataOutputStream ordinalsOut;
+
+    private FileChannel todayChannel;
+    private MappedByteBuffer today;
+    private int todayEpochDay;
+    private int capacityWords;
+
+    private FileChannel historyChannel;
+    private MappedByteBuffer history;
+    // Sealed days in date order, with the byte offset of each day's record in the history file
+    private final TreeMap<Integer, Integer> dayOffsets = new TreeMap<>();
+
+    public AttendanceHistory(File directory) {
+        this.directory = directory;
+    }
+
+    public void open() throws IOException {
+        File ordinals = new File(directory, ORDINALS_FILE);
+        if (ordinals.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(ordinals)))) {
+                for (long i = ordinals.length() / 4; i > 0; i--) {
+                    addOrdinal(in.readInt());
+                }
+            }
+        }
+        ordinalsOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(ordinals, true)));
+
+        historyChannel = FileChannel.open(new File(directory, HISTORY_FILE).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (historyChannel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HISTORY_HEADER_BYTES);
+            header.putInt(HISTORY_MAGIC).putInt(1).flip();
+            historyChannel.write(header, 0);
+        }
+        mapHistory();
+
+        File todayFile = new File(directory, TODAY_FILE);
+        boolean existed = todayFile.exists() && todayFile.length() >= TODAY_HEADER_BYTES;
+        todayChannel = FileChannel.open(todayFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (existed) {
+            today = todayChannel.map(FileChannel.MapMode.READ_WRITE, 0, todayChannel.size());
+            if (today.getInt(0) != TODAY_MAGIC) {
+                throw new IOException("Unsupported attendance history format.");
+            }
+            todayEpochDay = today.getInt(4);
+            capacityWords = today.getInt(8);
+        } else {
+            resetToday((int) LocalDate.now().toEpochDay(), INITIAL_CAPACITY_WORDS);
+        }
+        rollOver();
+    }
+
+    public void close() {
+        try {
+            if (ordinalsOut != null) {
+                ordinalsOut.close();
+            }
+            if (today != null) {
+                today.force();
+            }
+            if (todayChannel != null) {
+                todayChannel.close();
+            }
+            if (historyChannel != null) {
+                historyChannel.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error occurred while closing attendance history.");
+        }
+    }
+
+    public void record(int rollNumber, boolean present) throws IOException {
+        rollOver();
+        int ordinal = ordinalOf(rollNumber);
+        if (ordinal >= capacityWords * 64) {
+            int capacity = capacityWords;
+            while (ordinal >= capacity * 64) {
+                capacity <<= 1;
+            }
+            growToday(capacity);
+        }
+
+        int setOffset = wordOffset((present ? 0 : capacityWords) + (ordinal >>> 6));
+        int clearOffset = wordOffset((present ? capacityWords : 0) + (ordinal >>> 6));
+        long bit = 1L << ordinal;
+        today.putLong(setOffset, today.getLong(setOffset) | bit);
+        today.putLong(clearOffset, today.getLong(clearOffset) & ~bit);
+    }
+
+    // Forgets every student and every day, keeping the files open
+    public void clear() throws IOException {
+        ordinalsOut.close();
+        ordinalsOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(directory, ORDINALS_FILE))));
+        ordinalsByRollNumber.clear();
+        ordinalCount = 0;
+
+        historyChannel.truncate(HISTORY_HEADER_BYTES);
+        historyChannel.force(false);
+        mapHistory();
+        resetToday((int) LocalDate.now().toEpochDay(), INITIAL_CAPACITY_WORDS);
+    }
+
+    public int getRollNumber(int ordinal) {
+        return rollNumbersByOrdinal[ordinal];
+    }
+
+    public int wordCount() {
+        return (ordinalCount + 63) >>> 6;
+    }
+
+    // Dates with a roll call, sealed days first and today last if anything was marked
+    public List<LocalDate> getRecordedDays() {
+        List<LocalDate> days = new ArrayList<>();
+        for (int epochDay : dayOffsets.keySet()) {
+            days.add(LocalDate.ofEpochDay(epochDay));
+        }
+        if (hasMarksToday()) {
+            days.add(LocalDate.ofEpochDay(todayEpochDay));
+        }
+        return days;
+    }
+
+    // Bitmap of students marked absent on the date, or null if there was no roll call that day
+    public long[] getAbsent(LocalDate date) {
+        return getBitmap((int) date.toEpochDay(), false);
+    }
+
+    public long[] getPresent(LocalDate date) {
+        return getBitmap((int) date.toEpochDay(), true);
+    }
+
+    // Students absent on at least the given number of consecutive roll-call days.
+    // streaks[j] holds the students whose current absence run is at least j + 1 days long.
+    public long[] findConsecutiveAbsences(int days) {
+        int words = wordCount();
+        long[] result = new long[words];
+        long[][] streaks = new long[days][words];
+        for (LocalDate day : getRecordedDays()) {
+            long[] absent = getAbsent(day);
+            for (int j = days - 1; j > 0; j--) {
+                for (int i = 0; i < words; i++) {
+                    streaks[j][i] = streaks[j - 1][i] & absent[i];
+                }
+            }
+            System.arraycopy(absent, 0, streaks[0], 0, words);
+            for (int i = 0; i < words; i++) {
+                result[i] |= streaks[days - 1][i];
+            }
+        }
+        return result;
+    }
+
+    // Present marks and total marks over the month, counted a word at a time
+    public long[] countMonth(YearMonth month) {
+        long present = 0;
+        long marked = 0;
+        for (LocalDate day : getRecordedDays()) {
+            if (!YearMonth.from(day).equals(month)) {
+                continue;
+            }
+            long[] presentWords = getPresent(day);
+            long[] absentWords = getAbsent(day);
+            for (int i = 0; i < presentWords.length; i++) {
+                present += Long.bitCount(presentWords[i]);
+                marked += Long.bitCount(presentWords[i] | absentWords[i]);
+            }
+        }
+        return new long[] { present, marked };
+    }
+
+    // Present marks and total marks over the month for one student
+    public int[] countMonth(YearMonth month, int rollNumber) {
+        int ordinal = ordinalsByRollNumber.get(rollNumber);
+        int present = 0;
+        int marked = 0;
+        if (ordinal < 0) {
+            return new int[] { present, marked };
+        }
+        long bit = 1L << ordinal;
+        for (LocalDate day : getRecordedDays()) {
+            if (!YearMonth.from(day).equals(month)) {
+                continue;
+            }
+            boolean isPresent = (getPresent(day)[ordinal >>> 6] & bit) != 0;
+            boolean isAbsent = (getAbsent(day)[ordinal >>> 6] & bit) != 0;
+            if (isPresent) {
+                present++;
+            }
+            if (isPresent || isAbsent) {
+                marked++;
+            }
+        }
+        return new int[] { present, marked };
+    }
+
+    private long[] getBitmap(int epochDay, boolean present) {
+        long[] words = new long[wordCount()];
+        if (epochDay == todayEpochDay) {
+            if (!hasMarksToday()) {
+                return null;
+            }
+            int base = present ? 0 : capacityWords;
+            for (int i = 0; i < words.length && i < capacityWords; i++) {
+                words[i] = today.getLong(wordOffset(base + i));
+            }
+            return words;
+        }
+
+        Integer offset = dayOffsets.get(epochDay);
+        if (offset == null) {
+            return null;
+        }
+        int presentLength = history.getInt(offset + 8);
+        int absentLength = history.getInt(offset + 12);
+        int dayWords = history.getInt(offset + 4);
+        long[] decoded = words.length >= dayWords ? words : new long[dayWords];
+        ByteBuffer record = history.duplicate();
+        record.position(offset + DAY_HEADER_BYTES + (present ? 0 : presentLength * 8));
+        CompressedBitmap.decompress(record.slice().asLongBuffer(), present ? presentLength : absentLength, decoded);
+        return decoded == words ? words : java.util.Arrays.copyOf(decoded, words.length);
+    }
+
+    private boolean hasMarksToday() {
+        for (int i = 0; i < capacityWords * 2; i++) {
+            if (today.getLong(wordOffset(i)) != 0L) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Seals the day held in the today file once the date has moved on
+    private void rollOver() throws IOException {
+        int currentEpochDay = (int) LocalDate.now().toEpochDay();
+        if (currentEpochDay == todayEpochDay) {
+            return;
+        }
+        if (hasMarksToday() && !dayOffsets.containsKey(todayEpochDay)) {
+            long[] presentWords = CompressedBitmap.compress(todayWords(0), capacityWords);
+            long[] absentWords = CompressedBitmap.compress(todayWords(capacityWords), capacityWords);
+            ByteBuffer record = ByteBuffer.allocate(DAY_HEADER_BYTES + (presentWords.length + absentWords.length) * 8);
+            record.putInt(todayEpochDay).putInt(capacityWords).putInt(presentWords.length).putInt(absentWords.length);
+            record.asLongBuffer().put(presentWords).put(absentWords);
+            record.position(0);
+
+            long offset = historyChannel.size();
+            while (record.hasRemaining()) {
+                historyChannel.write(record, offset + record.position());
+            }
+            historyChannel.force(false);
+            mapHistory();
+        }
+        resetToday(currentEpochDay, capacityWords == 0 ? INITIAL_CAPACITY_WORDS : capacityWords);
+    }
+
+    private void resetToday(int epochDay, int capacity) throws IOException {
+        todayChannel.truncate(0);
+        today = todayChannel.map(FileChannel.MapMode.READ_WRITE, 0, TODAY_HEADER_BYTES + capacity * 16L);
+        today.putInt(0, TODAY_MAGIC);
+        today.putInt(4, epochDay);
+        today.putInt(8, capacity);
+        todayEpochDay = epochDay;
+        capacityWords = capacity;
+    }
+
+    // Copies today's marks into a larger file beside the current one and moves it into place, so a
+    // crash while growing leaves either the old file or the new one
+    private void growToday(int capacity) throws IOException {
+        ByteBuffer grown = ByteBuffer.allocate(TODAY_HEADER_BYTES + capacity * 16);
+        grown.putInt(0, TODAY_MAGIC).putInt(4, todayEpochDay).putInt(8, capacity);
+        for (int i = 0; i < capacityWords; i++) {
+            grown.putLong(wordOffset(i), today.getLong(wordOffset(i)));
+            grown.putLong(wordOffset(capacity + i), today.getLong(wordOffset(capacityWords + i)));
+        }
+
+        File todayFile = new File(directory, TODAY_FILE);
+        File temporary = new File(directory, TODAY_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (grown.hasRemaining()) {
+                channel.write(grown);
+            }
+            channel.force(false);
+        }
+        todayChannel.close();
+        Files.move(temporary.toPath(), todayFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        todayChannel = FileChannel.open(todayFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        today = todayChannel.map(FileChannel.MapMode.READ_WRITE, 0, todayChannel.size());
+        capacityWords = capacity;
+    }
+
+    private long[] todayWords(int base) {
+        long[] words = new long[capacityWords];
+        for (int i = 0; i < capacityWords; i++) {
+            words[i] = today.getLong(wordOffset(base + i));
+        }
+        return words;
+    }
+
+    private static int wordOffset(int word) {
+        return TODAY_HEADER_BYTES + word * 8;
+    }
+
+    private void mapHistory() throws IOException {
+        history = historyChannel.map(FileChannel.MapMode.READ_ONLY, 0, historyChannel.size());
+        if (history.getInt(0) != HISTORY_MAGIC) {
+            throw new IOException("Unsupported attendance history format.");
+        }
+        dayOffsets.clear();
+        int offset = HISTORY_HEADER_BYTES;
+        while (offset + DAY_HEADER_BYTES <= history.limit()) {
+            int recordBytes = DAY_HEADER_BYTES + (history.getInt(offset + 8) + history.getInt(offset + 12)) * 8;
+            if (offset + recordBytes > history.limit()) {
+                break;
+            }
+            dayOffsets.put(history.getInt(offset), offset);
+            offset += recordBytes;
+        }
+
+        // Drop a day record torn by a crash so the next seal appends after the last complete one
+        if (offset < history.limit()) {
+            historyChannel.truncate(offset);
+            history = historyChannel.map(FileChannel.MapMode.READ_ONLY, 0, offset);
+        }
+    }
+
+    private int ordinalOf(int rollNumber) throws IOException {
+        int ordinal = ordinalsByRollNumber.get(rollNumber);
+        if (ordinal >= 0) {
+            return ordinal;
+        }
+        ordinalsOut.writeInt(rollNumber);
+        ordinalsOut.flush();
+        return addOrdinal(rollNumber);
+    }
+
+    private int addOrdinal(int rollNumber) {
+        if (ordinalCount == rollNumbersByOrdinal.length) {
+            rollNumbersByOrdinal = java.util.Arrays.copyOf(rollNumbersByOrdinal, ordinalCount * 2);
+        }
+        rollNumbersByOrdinal[ordinalCount] = rollNumber;
+        ordinalsByRollNumber.put(rollNumber, ordinalCount);
+        return ordinalCount++;
+    }
+}
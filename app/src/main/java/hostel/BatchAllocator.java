@@ -0,0 +1,174 @@
+package hostel;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Plans the placement of every unallocated student at once. Rooms are filled compactly: partly
+// occupied rooms first, those with the fewest free beds first so they complete before others are
+// touched, then empty rooms with the most beds first, then new rooms. When departments are kept
+// together, rooms are handed to departments up front and each department is then planned on its
+// own thread. Otherwise departments follow one another through a single sequence of rooms, and
+// the room where one department ends also takes the start of the next.
+class BatchAllocator {
+    // Placements of one department, in the order they are applied
+    static final class Placements {
+        final int[] rollNumbers;
+        final int[] roomNumbers;
+        int size;
+
+        Placements(int capacity) {
+            rollNumbers = new int[capacity];
+            roomNumbers = new int[capacity];
+        }
+
+        void add(int rollNumber, int roomNumber) {
+            rollNumbers[size] = rollNumber;
+            roomNumbers[size] = roomNumber;
+            size++;
+        }
+    }
+
+    // A room with beds to hand out: an existing room, or one the plan creates
+    private static final class Beds {
+        final int roomNumber;
+        int free;
+
+        Beds(int roomNumber, int free) {
+            this.roomNumber = roomNumber;
+            this.free = free;
+        }
+    }
+
+    private static final Comparator<Beds> FEWEST_FREE_FIRST = Comparator.<Beds>comparingInt(beds -> beds.free).thenComparingInt(beds -> beds.roomNumber);
+    private static final Comparator<Beds> LARGEST_FIRST = Comparator.<Beds>comparingInt(beds -> -beds.free).thenComparingInt(beds -> beds.roomNumber);
+
+    private final Placements[] placements = new Placements[Department.values().length];
+    private final List<int[]> newRooms = new ArrayList<>();
+    private int unplaced;
+
+    // Roll numbers of the unallocated students are indexed by department ordinal. A new room
+    // capacity of 0 places only as many students as existing rooms have beds for.
+    public BatchAllocator(int[][] unallocated, Collection<Room> rooms, boolean keepWithDepartment, int newRoomCapacity, int nextRoomNumber) {
+        Department[] departments = Department.values();
+        List<List<Beds>> partlyOccupied = new ArrayList<>();
+        for (int d = 0; d <= departments.length; d++) {
+            partlyOccupied.add(new ArrayList<>());
+        }
+        List<Beds> empty = new ArrayList<>();
+        for (Room room : rooms) {
+            int free = room.getFreeBeds();
+            if (free == 0) {
+                continue;
+            }
+            Beds beds = new Beds(room.getRoomNumber(), free);
+            if (room.isEmpty()) {
+                empty.add(beds);
+            } else {
+                // Mixed rooms go in the extra last list, open only when departments may mix
+                Department department = room.getDepartment();
+                partlyOccupied.get(department == null ? departments.length : department.ordinal()).add(beds);
+            }
+        }
+        empty.sort(LARGEST_FIRST);
+        for (int d = 0; d < departments.length; d++) {
+            placements[d] = new Placements(unallocated[d].length);
+        }
+
+        if (keepWithDepartment) {
+            // Hand out empty and new rooms in department order, as many beds as each still needs
+            List<List<Beds>> handedOut = new ArrayList<>();
+            int nextEmpty = 0;
+            for (int d = 0; d < departments.length; d++) {
+                List<Beds> given = new ArrayList<>();
+                long needed = unallocated[d].length;
+                for (Beds beds : partlyOccupied.get(d)) {
+                    needed -= beds.free;
+                }
+                while (needed > 0 && nextEmpty < empty.size()) {
+                    Beds beds = empty.get(nextEmpty++);
+                    given.add(beds);
+                    needed -= beds.free;
+                }
+                while (needed > 0 && newRoomCapacity > 0) {
+                    given.add(openRoom(nextRoomNumber++, newRoomCapacity));
+                    needed -= newRoomCapacity;
+                }
+                handedOut.add(given);
+            }
+            IntStream.range(0, departments.length).parallel().forEach(d -> {
+                List<Beds> own = partlyOccupied.get(d);
+                own.sort(FEWEST_FREE_FIRST);
+                own.addAll(handedOut.get(d));
+                fill(unallocated[d], own, placements[d]);
+            });
+            for (int d = 0; d < departments.length; d++) {
+                unplaced += unallocated[d].length - placements[d].size;
+            }
+            return;
+        }
+
+        // Departments follow one another through a single sequence of rooms, so they still end up
+        // together wherever the numbers allow
+        List<Beds> order = new ArrayList<>();
+        for (List<Beds> beds : partlyOccupied) {
+            order.addAll(beds);
+        }
+        order.sort(FEWEST_FREE_FIRST);
+        order.addAll(empty);
+        int position = 0;
+        for (int d = 0; d < departments.length; d++) {
+            int placed = 0;
+            while (placed < unallocated[d].length) {
+                if (position == order.size()) {
+                    if (newRoomCapacity <= 0) {
+                        break;
+                    }
+                    order.add(openRoom(nextRoomNumber++, newRoomCapacity));
+                }
+                Beds beds = order.get(position);
+                while (beds.free > 0 && placed < unallocated[d].length) {
+                    placements[d].add(unallocated[d][placed++], beds.roomNumber);
+                    beds.free--;
+                }
+                if (beds.free == 0) {
+                    position++;
+                }
+            }
+            unplaced += unallocated[d].length - placed;
+        }
+    }
+
+    public Placements getPlacements(Department department) {
+        return placements[department.ordinal()];
+    }
+
+    // Number and capacity of every room the plan opens, in room number order
+    public List<int[]> getNewRooms() {
+        return newRooms;
+    }
+
+    public int getUnplacedCount() {
+        return unplaced;
+    }
+
+    private Beds openRoom(int roomNumber, int capacity) {
+        newRooms.add(new int[] {roomNumber, capacity});
+        return new Beds(roomNumber, capacity);
+    }
+
+    private static void fill(int[] rollNumbers, List<Beds> rooms, Placements target) {
+        int next = 0;
+        for (Beds beds : rooms) {
+            for (int bed = 0; bed < beds.free && next < rollNumbers.length; bed++) {
+                target.add(rollNumbers[next++], beds.roomNumber);
+            }
+            if (next == rollNumbers.length) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package hostel;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Runs a file of commands through the service API, one command per line:
+//   add <roll number> <name> <department>      modify <roll number> <name> <department>
+//   remove <roll number>                       allocate <room number> <roll number>
+//   auto-allocate <roll number> [Y|N]          deallocate <room number> <roll number>
+//   mark <roll number> <P|A>                   search <name or roll number>
+// Blank lines and lines starting with # are skipped. Every result is written to a buffered
+// writer prefixed with its line number, and the whole run is made durable once at the end.
+class BatchRunner {
+    private final HostelManagementSystem managementSystem;
+    private final PrintWriter out;
+    private int commands;
+    private int failures;
+
+    public BatchRunner(HostelManagementSystem managementSystem, PrintWriter out) {
+        this.managementSystem = managementSystem;
+        this.out = out;
+    }
+
+    public int getCommandCount() {
+        return commands;
+    }
+
+    public int getFailureCount() {
+        return failures;
+    }
+
+    public void run(File file) throws IOException {
+        managementSystem.beginBatch();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                commands++;
+                OperationResult result = execute(line.split("\\s+"), lineNumber);
+                if (!result.isSuccess()) {
+                    failures++;
+                }
+                out.println(lineNumber + ": " + result.getMessage());
+            }
+        } finally {
+            managementSystem.endBatch();
+            out.flush();
+        }
+    }
+
+    private OperationResult execute(String[] arguments, int lineNumber) {
+        String command = arguments[0].toLowerCase();
+        try {
+            switch (command) {
+                case "add":
+                    expect(arguments, 4);
+                    return managementSystem.addStudent(arguments[2], Integer.parseInt(arguments[1]), Department.parse(arguments[3]));
+                case "modify":
+                    expect(arguments, 4);
+                    return managementSystem.modifyStudent(Integer.parseInt(arguments[1]), arguments[2], Department.parse(arguments[3]));
+                case "remove":
+                    expect(arguments, 2);
+                    return managementSystem.removeStudent(Integer.parseInt(arguments[1]));
+                case "allocate":
+                    expect(arguments, 3);
+                    return managementSystem.allocateRoom(Integer.parseInt(arguments[1]), Integer.parseInt(arguments[2]));
+                case "auto-allocate":
+                    if (arguments.length != 2 && arguments.length != 3) {
+                        throw new IllegalArgumentException("Expected 1 or 2 arguments for " + arguments[0] + ".");
+                    }
+                    return managementSystem.autoAllocateRoom(Integer.parseInt(arguments[1]), arguments.length == 3 && arguments[2].equalsIgnoreCase("Y"));
+                case "deallocate":
+                    expect(arguments, 3);
+                    return managementSystem.removeStudentFromRoom(Integer.parseInt(arguments[1]), Integer.parseInt(arguments[2]));
+                case "mark":
+                    expect(arguments, 3);
+                    if (!arguments[2].equalsIgnoreCase("P") && !arguments[2].equalsIgnoreCase("A")) {
+                        return OperationResult.failure("Invalid attendance status. Use P or A.");
+                    }
+                    return managementSystem.markAttendance(Integer.parseInt(arguments[1]), arguments[2].equalsIgnoreCase("P"));
+                case "search":
+                    expect(arguments, 2);
+                    return search(arguments[1], lineNumber);
+                case "roll-call":
+                    return rollCall(arguments);
+                case "capacity":
+                    expect(arguments, 3);
+                    return managementSystem.setRoomCapacity(Integer.parseInt(arguments[1]), Integer.parseInt(arguments[2]));
+                case "auto-allocate-all":
+                    if (arguments.length > 3) {
+                        throw new IllegalArgumentException("Expected at most 2 arguments for " + arguments[0] + ".");
+                    }
+                    return managementSystem.autoAllocateAll(arguments.length >= 2 && arguments[1].equalsIgnoreCase("Y"),
+                            arguments.length == 3 ? Integer.parseInt(arguments[2]) : Room.DEFAULT_CAPACITY);
+                case "stats":
+                    expect(arguments, 1);
+                    out.println(managementSystem.getAggregates().summary());
+                    out.println(managementSystem.getMetrics().summary());
+                    return OperationResult.success("Stats shown.");
+                case "export": {
+                    expect(arguments, 3);
+                    StudentExporter.Format format = StudentExporter.Format.parse(arguments[2]);
+                    if (format == null) {
+                        return OperationResult.failure("Invalid format. Use CSV or JSONL.");
+                    }
+                    return managementSystem.exportStudents(new File(arguments[1]), format);
+                }
+                default:
+                    return OperationResult.failure("Unknown command " + arguments[0] + ".");
+            }
+        } catch (NumberFormatException e) {
+            return OperationResult.failure("Invalid number format. Please enter a numeric value.");
+        } catch (IllegalArgumentException e) {
+            return OperationResult.failure(e.getMessage());
+        }
+    }
+
+    // roll-call room <room number> <present roll numbers...>
+    // roll-call department <department> <present roll numbers...>
+    // roll-call all <present roll numbers...>
+    private OperationResult rollCall(String[] arguments) {
+        if (arguments.length < 2) {
+            throw new IllegalArgumentException("Expected a scope of room, department or all for " + arguments[0] + ".");
+        }
+        String scope = arguments[1].toLowerCase();
+        int first = scope.equals("all") ? 2 : 3;
+        if (arguments.length < first) {
+            throw new IllegalArgumentException("Expected a room number or department for " + arguments[0] + ".");
+        }
+        int[] scanned = new int[arguments.length - first];
+        for (int i = 0; i < scanned.length; i++) {
+            scanned[i] = Integer.parseInt(arguments[first + i]);
+        }
+        switch (scope) {
+            case "room":
+                return managementSystem.rollCallRoom(Integer.parseInt(arguments[2]), scanned);
+            case "department":
+                return managementSystem.rollCallDepartment(Department.parse(arguments[2]), scanned);
+            case "all":
+                return managementSystem.rollCallAll(scanned);
+            default:
+                return OperationResult.failure("Invalid roll call scope. Use room, department or all.");
+        }
+    }
+
+    private OperationResult search(String searchTerm, int lineNumber) {
+        List<Student> matches = managementSystem.searchStudents(searchTerm);
+        if (matches.isEmpty()) {
+            return OperationResult.failure("No student found with the given search term.");
+        }
+        for (Student student : matches) {
+            out.println(lineNumber + ": " + student);
+        }
+        return OperationResult.success(matches.size() + " students found.");
+    }
+
+    private static void expect(String[] arguments, int count) {
+        if (arguments.length != count) {
+            throw new IllegalArgumentException("Expected " + (count - 1) + " arguments for " + arguments[0] + ".");
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package hostel;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Broadcasts every change as it is applied to any number of readers, each tailing at its own
+// pace. Events are copied into pre-allocated slots of a ring, so publishing allocates nothing
+// and never waits for a reader. Publishers take the feed's lock, leaving the ring a single
+// writer at a time; readers take no lock and check a per-slot sequence before and after
+// copying a slot, as a seqlock does. A reader that falls more than the ring's size behind
+// skips ahead to the oldest event still held and counts what it missed.
+class ChangeFeed {
+    // A reusable copy of one event, filled in by Subscription.poll
+    static final class Event {
+        private long sequence;
+        private MutationType type;
+        private int rollNumber;
+        private String name;
+        private Department department;
+        private int roomNumber;
+        private boolean present;
+        private int capacity;
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public MutationType getType() {
+            return type;
+        }
+
+        public int getRollNumber() {
+            return rollNumber;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Department getDepartment() {
+            return department;
+        }
+
+        public int getRoomNumber() {
+            return roomNumber;
+        }
+
+        public boolean isPresent() {
+            return present;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public String toString() {
+            return sequence + " " + type + " " + rollNumber + (name != null ? " " + name + " " + department : "")
+                    + (roomNumber != 0 ? " room " + roomNumber : "") + (type == MutationType.MARK_ATTENDANCE ? (present ? " P" : " A") : "")
+                    + (type == MutationType.SET_ROOM_CAPACITY ? " capacity " + capacity : "");
+        }
+    }
+
+    // One reader's position in the feed. Not shared between threads.
+    final class Subscription {
+        private long next;
+        private long missed;
+
+        private Subscription(long next) {
+            this.next = next;
+        }
+
+        // Copies the next event into the given one, or returns false once caught up
+        public boolean poll(Event event) {
+            while (true) {
+                if (next > cursor.get()) {
+                    return false;
+                }
+                if (copy(next, event)) {
+                    next++;
+                    return true;
+                }
+                // Overwritten while behind: resume from the oldest event the ring still holds
+                long oldest = Math.max(cursor.get() - mask, 1);
+                missed += oldest - next;
+                next = oldest;
+            }
+        }
+
+        // Sequence of the next event this subscription will return
+        public long getPosition() {
+            return next;
+        }
+
+        public long getMissed() {
+            return missed;
+        }
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final MutationType[] types;
+    private final int[] rollNumbers;
+    private final String[] names;
+    private final Department[] departments;
+    private final int[] roomNumbers;
+    private final boolean[] presents;
+    private final int[] capacities;
+    // Sequence of the last published event; events are numbered from 1
+    private final AtomicLong cursor = new AtomicLong();
+
+    // The size is rounded up to a power of two
+    public ChangeFeed(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        types = new MutationType[capacity];
+        rollNumbers = new int[capacity];
+        names = new String[capacity];
+        departments = new Department[capacity];
+        roomNumbers = new int[capacity];
+        presents = new boolean[capacity];
+        capacities = new int[capacity];
+    }
+
+    public synchronized long publish(JournalRecord record) {
+        long sequence = cursor.get() + 1;
+        int slot = (int) sequence & mask;
+        // Readers that see the slot mid-write find this mark and treat the old event as overwritten
+        sequences.set(slot, -1);
+        VarHandle.storeStoreFence();
+        types[slot] = record.getType();
+        rollNumbers[slot] = record.getRollNumber();
+        names[slot] = record.getName();
+        departments[slot] = record.getDepartment();
+        roomNumbers[slot] = record.getRoomNumber();
+        presents[slot] = record.isPresent();
+        capacities[slot] = record.getCapacity();
+        sequences.set(slot, sequence);
+        cursor.set(sequence);
+        return sequence;
+    }
+
+    // Starts after the last event published so far
+    public Subscription subscribe() {
+        return new Subscription(cursor.get() + 1);
+    }
+
+    // Starts at the oldest event the ring still holds
+    public Subscription subscribeFromOldest() {
+        return new Subscription(Math.max(cursor.get() - mask, 1));
+    }
+
+    public long getLastSequence() {
+        return cursor.get();
+    }
+
+    private boolean copy(long sequence, Event event) {
+        int slot = (int) sequence & mask;
+        if (sequences.get(slot) != sequence) {
+            return false;
+        }
+        MutationType type = types[slot];
+        int rollNumber = rollNumbers[slot];
+        String name = names[slot];
+        Department department = departments[slot];
+        int roomNumber = roomNumbers[slot];
+        boolean present = presents[slot];
+        int capacity = capacities[slot];
+        VarHandle.loadLoadFence();
+        if (sequences.get(slot) != sequence) {
+            return false;
+        }
+        event.sequence = sequence;
+        event.type = type;
+        event.rollNumber = rollNumber;
+        event.name = name;
+        event.department = department;
+        event.roomNumber = roomNumber;
+        event.present = present;
+        event.capacity = capacity;
+        return true;
+    }
+}
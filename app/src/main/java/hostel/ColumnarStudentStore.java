@@ -0,0 +1,338 @@
+package hostel;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Struct-of-arrays roster: each field of every student lives in its own primitive array, indexed
+// by slot, and names are UTF-8 bytes in one append-only arena. Students handed out are thin views
+// over a slot. Slots are appended in roster order and not reused until the store is cleared, so a
+// removed slot just drops out of the live set and its department's linked list.
+class ColumnarStudentStore implements StudentStore {
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final int NONE = -1;
+
+    private int[] rollNumbers;
+    private byte[] departments;
+    private long[] present;
+    private long[] live;
+    private int[] nameOffsets;
+    private int[] nameLengths;
+    // Doubly linked list of the slots of each department, in roster order
+    private int[] nextInDepartment;
+    private int[] previousInDepartment;
+    private final int[] departmentHeads = new int[Department.values().length];
+    private final int[] departmentTails = new int[Department.values().length];
+    private final int[] departmentCounts = new int[Department.values().length];
+    private byte[] nameArena;
+    private int nameArenaLength;
+    private IntIntMap slotsByRollNumber;
+    private int slotCount;
+    private int size;
+
+    public ColumnarStudentStore() {
+        clear();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(int rollNumber) {
+        return slotsByRollNumber.get(rollNumber) >= 0;
+    }
+
+    @Override
+    public Student get(int rollNumber) {
+        int slot = slotsByRollNumber.get(rollNumber);
+        return slot >= 0 ? new Student(this, slot) : null;
+    }
+
+    @Override
+    public Student add(Student student) {
+        byte[] name = student.getName().getBytes(StandardCharsets.UTF_8);
+        int slot = newSlot(student.getRollNumber(), student.getDepartment(), appendName(name, 0, name.length), name.length);
+        setPresent(slot, student.isPresent());
+        return new Student(this, slot);
+    }
+
+    @Override
+    public Student remove(int rollNumber) {
+        int slot = slotsByRollNumber.remove(rollNumber);
+        if (slot < 0) {
+            return null;
+        }
+        unlink(slot);
+        live[slot >>> 6] &= ~(1L << slot);
+        size--;
+        return new Student(this, slot);
+    }
+
+    @Override
+    public void update(Student student, String name, Department department) {
+        int slot = slotsByRollNumber.get(student.getRollNumber());
+        setName(slot, name);
+        setDepartment(slot, department);
+    }
+
+    @Override
+    public int count(Department department) {
+        return departmentCounts[department.ordinal()];
+    }
+
+    @Override
+    public Iterable<Student> byDepartment(Department department) {
+        return () -> new java.util.Iterator<Student>() {
+            private int slot = departmentHeads[department.ordinal()];
+
+            @Override
+            public boolean hasNext() {
+                return slot != NONE;
+            }
+
+            @Override
+            public Student next() {
+                if (slot == NONE) {
+                    throw new java.util.NoSuchElementException();
+                }
+                Student student = new Student(ColumnarStudentStore.this, slot);
+                slot = nextInDepartment[slot];
+                return student;
+            }
+        };
+    }
+
+    // Copies the snapshot's name bytes into the arena in one go and fills the columns from it,
+    // so no name is decoded and no per-student object is created
+    @Override
+    public void load(StudentSnapshot snapshot) {
+        int studentCount = snapshot.getStudentCount();
+        int blobLength = snapshot.getNameBlobLength();
+        ensureNameCapacity(blobLength);
+        byte[] blob = new byte[blobLength];
+        snapshot.copyNameBlob(blob);
+        int blobOffset = nameArenaLength;
+        System.arraycopy(blob, 0, nameArena, blobOffset, blobLength);
+        nameArenaLength += blobLength;
+
+        ensureSlotCapacity(slotCount + studentCount);
+        if (size == 0) {
+            slotsByRollNumber = new IntIntMap(studentCount);
+        }
+        int nameStart = snapshot.getNameOffset(0);
+        for (int i = 0; i < studentCount; i++) {
+            int nameEnd = snapshot.getNameOffset(i + 1);
+            Department department = snapshot.getDepartment(i);
+            if (department == null) {
+                System.out.println("Skipping roll number " + snapshot.getRollNumber(i) + " with an invalid department.");
+            } else {
+                int slot = newSlot(snapshot.getRollNumber(i), department, blobOffset + nameStart, nameEnd - nameStart);
+                setPresent(slot, snapshot.isPresent(i));
+            }
+            nameStart = nameEnd;
+        }
+    }
+
+    @Override
+    public void clear() {
+        rollNumbers = new int[DEFAULT_CAPACITY];
+        departments = new byte[DEFAULT_CAPACITY];
+        present = new long[DEFAULT_CAPACITY >>> 6];
+        live = new long[DEFAULT_CAPACITY >>> 6];
+        nameOffsets = new int[DEFAULT_CAPACITY];
+        nameLengths = new int[DEFAULT_CAPACITY];
+        nextInDepartment = new int[DEFAULT_CAPACITY];
+        previousInDepartment = new int[DEFAULT_CAPACITY];
+        java.util.Arrays.fill(departmentHeads, NONE);
+        java.util.Arrays.fill(departmentTails, NONE);
+        java.util.Arrays.fill(departmentCounts, 0);
+        nameArena = new byte[DEFAULT_CAPACITY * 16];
+        nameArenaLength = 0;
+        slotsByRollNumber = new IntIntMap();
+        slotCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public java.util.Iterator<Student> iterator() {
+        return new java.util.Iterator<Student>() {
+            private int slot = nextLiveSlot(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < slotCount;
+            }
+
+            @Override
+            public Student next() {
+                if (slot >= slotCount) {
+                    throw new java.util.NoSuchElementException();
+                }
+                Student student = new Student(ColumnarStudentStore.this, slot);
+                slot = nextLiveSlot(slot + 1);
+                return student;
+            }
+        };
+    }
+
+    public int getRollNumber(int slot) {
+        return rollNumbers[slot];
+    }
+
+    public String getName(int slot) {
+        return new String(nameArena, nameOffsets[slot], nameLengths[slot], StandardCharsets.UTF_8);
+    }
+
+    public Department getDepartment(int slot) {
+        return Department.values()[departments[slot]];
+    }
+
+    public boolean isPresent(int slot) {
+        return (present[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    public void setPresent(int slot, boolean value) {
+        if (value) {
+            present[slot >>> 6] |= 1L << slot;
+        } else {
+            present[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    // The old bytes stay in the arena, since a snapshot being written may still refer to them
+    public void setName(int slot, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        nameOffsets[slot] = appendName(bytes, 0, bytes.length);
+        nameLengths[slot] = bytes.length;
+    }
+
+    public void setDepartment(int slot, Department department) {
+        if (departments[slot] == department.ordinal()) {
+            return;
+        }
+        boolean linked = isLive(slot);
+        if (linked) {
+            unlink(slot);
+        }
+        departments[slot] = (byte) department.ordinal();
+        if (linked) {
+            link(slot);
+        }
+    }
+
+    // The arena array itself; bytes written to it are never changed, but it is replaced when it grows
+    public byte[] getNameArena() {
+        return nameArena;
+    }
+
+    public int getNameOffset(int slot) {
+        return nameOffsets[slot];
+    }
+
+    public int getNameLength(int slot) {
+        return nameLengths[slot];
+    }
+
+    private int newSlot(int rollNumber, Department department, int nameOffset, int nameLength) {
+        ensureSlotCapacity(slotCount + 1);
+        int slot = slotCount++;
+        rollNumbers[slot] = rollNumber;
+        departments[slot] = (byte) department.ordinal();
+        nameOffsets[slot] = nameOffset;
+        nameLengths[slot] = nameLength;
+        live[slot >>> 6] |= 1L << slot;
+        link(slot);
+        slotsByRollNumber.put(rollNumber, slot);
+        size++;
+        return slot;
+    }
+
+    private boolean isLive(int slot) {
+        return (live[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    private int nextLiveSlot(int slot) {
+        while (slot < slotCount) {
+            long word = live[slot >>> 6] & (-1L << slot);
+            if (word != 0) {
+                return Math.min(slotCount, (slot & ~63) + Long.numberOfTrailingZeros(word));
+            }
+            slot = (slot & ~63) + 64;
+        }
+        return slotCount;
+    }
+
+    private void link(int slot) {
+        int department = departments[slot];
+        int tail = departmentTails[department];
+        previousInDepartment[slot] = tail;
+        nextInDepartment[slot] = NONE;
+        if (tail == NONE) {
+            departmentHeads[department] = slot;
+        } else {
+            nextInDepartment[tail] = slot;
+        }
+        departmentTails[department] = slot;
+        departmentCounts[department]++;
+    }
+
+    private void unlink(int slot) {
+        int department = departments[slot];
+        int previous = previousInDepartment[slot];
+        int next = nextInDepartment[slot];
+        if (previous == NONE) {
+            departmentHeads[department] = next;
+        } else {
+            nextInDepartment[previous] = next;
+        }
+        if (next == NONE) {
+            departmentTails[department] = previous;
+        } else {
+            previousInDepartment[next] = previous;
+        }
+        departmentCounts[department]--;
+    }
+
+    private int appendName(byte[] bytes, int offset, int length) {
+        ensureNameCapacity(length);
+        int start = nameArenaLength;
+        System.arraycopy(bytes, offset, nameArena, start, length);
+        nameArenaLength += length;
+        return start;
+    }
+
+    private void ensureNameCapacity(int additional) {
+        long required = (long) nameArenaLength + additional;
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Name arena is full.");
+        }
+        if (required > nameArena.length) {
+            nameArena = java.util.Arrays.copyOf(nameArena, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, nameArena.length * 2L)));
+        }
+    }
+
+    private void ensureSlotCapacity(int required) {
+        if (required <= rollNumbers.length) {
+            return;
+        }
+        int capacity = rollNumbers.length;
+        while (capacity < required) {
+            capacity <<= 1;
+        }
+        rollNumbers = java.util.Arrays.copyOf(rollNumbers, capacity);
+        departments = java.util.Arrays.copyOf(departments, capacity);
+        present = java.util.Arrays.copyOf(present, capacity >>> 6);
+        live = java.util.Arrays.copyOf(live, capacity >>> 6);
+        nameOffsets = java.util.Arrays.copyOf(nameOffsets, capacity);
+        nameLengths = java.util.Arrays.copyOf(nameLengths, capacity);
+        nextInDepartment = java.util.Arrays.copyOf(nextInDepartment, capacity);
+        previousInDepartment = java.util.Arrays.copyOf(previousInDepartment, capacity);
+    }
+}
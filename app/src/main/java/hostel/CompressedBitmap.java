@@ -0,0 +1,58 @@
+package hostel;
+
+import java.nio.LongBuffer;
+
+// Word-aligned run-length encoding for attendance bitmaps.
+// Each header word holds the fill bit (bit 63), the number of all-zero or all-one words it
+// stands for (bits 32-62) and the number of literal words stored right after it (bits 0-31).
+class CompressedBitmap {
+    private CompressedBitmap() {
+    }
+
+    public static long[] compress(long[] words, int length) {
+        long[] encoded = new long[length + 1];
+        int size = 0;
+        int i = 0;
+        while (i < length) {
+            long fill = words[i] == -1L ? -1L : 0L;
+            int run = 0;
+            while (i < length && (words[i] == 0L || words[i] == -1L) && words[i] == fill) {
+                run++;
+                i++;
+            }
+            int literalStart = i;
+            while (i < length && words[i] != 0L && words[i] != -1L) {
+                i++;
+            }
+            int literals = i - literalStart;
+
+            if (size + 1 + literals > encoded.length) {
+                encoded = java.util.Arrays.copyOf(encoded, Math.max(encoded.length * 2, size + 1 + literals));
+            }
+            encoded[size++] = (fill == -1L ? 1L << 63 : 0L) | ((long) run << 32) | literals;
+            System.arraycopy(words, literalStart, encoded, size, literals);
+            size += literals;
+        }
+        return java.util.Arrays.copyOf(encoded, size);
+    }
+
+    // Decodes encodedLength words from the buffer into out, which must be large enough
+    public static void decompress(LongBuffer in, int encodedLength, long[] out) {
+        int position = 0;
+        int read = 0;
+        while (read < encodedLength) {
+            long header = in.get();
+            read++;
+            long fill = header < 0 ? -1L : 0L;
+            int run = (int) ((header >>> 32) & 0x7FFFFFFFL);
+            int literals = (int) header;
+            if (fill != 0L) {
+                java.util.Arrays.fill(out, position, position + run, fill);
+            }
+            position += run;
+            in.get(out, position, literals);
+            position += literals;
+            read += literals;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package hostel;
+
+enum Department {
+    AIE,
+    CSE,
+    CYS;
+
+    // Returns the department with the given name, ignoring case, or null if there is none
+    public static Department parse(String name) {
+        for (Department department : values()) {
+            if (department.name().equalsIgnoreCase(name)) {
+                return department;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,724 @@
+package hostel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+// Roster kept in a B+tree file keyed by roll number, selected with -Dhostel.store=disk. Only a
+// bounded LRU cache of decoded pages is held on the heap (-Dhostel.store.cachePages, 1024 by
+// default), so lookups, roll number range scans and inserts need the same memory however many
+// students, alumni included, the file holds. Students handed out are views that read through
+// to the tree by roll number.
+//
+// students.btree is made of 4 KB pages. Page 0 is the header [magic][version][root][page count]
+// [size][students per department]. A leaf is [1][row count][next leaf] followed by rows of
+// [roll number][department][present][name length][name UTF-8] in roll number order. An internal
+// page is [2][key count] followed by its children interleaved with the separating keys. Removing
+// a row leaves its space to the leaf; pages are never merged.
+//
+// Dirty pages are written only by a checkpoint, which forces them to students.btree.pending first
+// and then writes them in place, so a crash leaves the tree as of the last complete checkpoint.
+// A complete pending file found on open is copied in again. A checkpoint runs between operations
+// once a dirty page is about to be evicted, and on flush, which compaction calls before the
+// journal the tree has absorbed is dropped.
+class DiskStudentStore implements StudentStore {
+    static final String FILE_NAME = "students.btree";
+    private static final String PENDING_FILE_NAME = "students.btree.pending";
+    private static final int MAGIC = 0x484D5342;
+    private static final int PENDING_MAGIC = 0x484D5350;
+    private static final int VERSION = 1;
+    private static final int PAGE_SIZE = 4096;
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+    private static final int LEAF_HEADER = 7;
+    private static final int ROW_HEADER = 8;
+    private static final int MAX_LEAF_ROWS = (PAGE_SIZE - LEAF_HEADER) / ROW_HEADER;
+    private static final int MAX_KEYS = (PAGE_SIZE - 3 - 4) / 8;
+    // Keeps any leaf split into two halves that fit a page
+    static final int MAX_NAME_BYTES = 1024;
+    // Room for every page one operation touches on a tree of any practical depth
+    private static final int MIN_CACHE_PAGES = 64;
+    private static final int MAX_DEPTH = 32;
+
+    private static final class Page {
+        final int id;
+        final boolean leaf;
+        boolean dirty;
+        int count;
+        final int[] keys;
+        // Leaf pages
+        byte[] departments;
+        boolean[] present;
+        byte[][] names;
+        int next;
+        int bytes;
+        // Internal pages
+        int[] children;
+
+        Page(int id, boolean leaf) {
+            this.id = id;
+            this.leaf = leaf;
+            if (leaf) {
+                keys = new int[MAX_LEAF_ROWS + 1];
+                departments = new byte[MAX_LEAF_ROWS + 1];
+                present = new boolean[MAX_LEAF_ROWS + 1];
+                names = new byte[MAX_LEAF_ROWS + 1][];
+                bytes = LEAF_HEADER;
+            } else {
+                keys = new int[MAX_KEYS + 1];
+                children = new int[MAX_KEYS + 2];
+            }
+        }
+    }
+
+    private final FileChannel channel;
+    private final FileChannel pendingChannel;
+    private final int cachePages;
+    // Access-ordered, so the first entry is the least recently used page
+    private final LinkedHashMap<Integer, Page> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final ByteBuffer pageBuffer = ByteBuffer.allocate(PAGE_SIZE);
+    private int root;
+    private int pageCount;
+    private int size;
+    private final int[] counts = new int[Department.values().length];
+    private boolean headerDirty;
+
+    private DiskStudentStore(FileChannel channel, FileChannel pendingChannel, int cachePages) {
+        this.channel = channel;
+        this.pendingChannel = pendingChannel;
+        this.cachePages = Math.max(cachePages, MIN_CACHE_PAGES);
+    }
+
+    public static boolean exists(File directory) {
+        return new File(directory, FILE_NAME).exists();
+    }
+
+    public static DiskStudentStore open(File directory, int cachePages) throws IOException {
+        FileChannel channel = FileChannel.open(new File(directory, FILE_NAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel pendingChannel = FileChannel.open(new File(directory, PENDING_FILE_NAME).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        DiskStudentStore store = new DiskStudentStore(channel, pendingChannel, cachePages);
+        try {
+            store.recoverPending();
+            if (channel.size() == 0) {
+                store.initialize();
+            } else {
+                store.readHeader();
+            }
+        } catch (IOException e) {
+            channel.close();
+            pendingChannel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    public static void delete(File directory) {
+        new File(directory, FILE_NAME).delete();
+        new File(directory, PENDING_FILE_NAME).delete();
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public synchronized boolean contains(int rollNumber) {
+        Page leaf = leafFor(rollNumber, null, null);
+        boolean found = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber) >= 0;
+        evictIfFull();
+        return found;
+    }
+
+    @Override
+    public Student get(int rollNumber) {
+        return contains(rollNumber) ? new Student(this, rollNumber) : null;
+    }
+
+    @Override
+    public synchronized Student add(Student student) {
+        put(student.getRollNumber(), encodeName(student.getName()), student.getDepartment(), student.isPresent());
+        return new Student(this, student.getRollNumber());
+    }
+
+    // The removed student is returned detached from the tree
+    @Override
+    public synchronized Student remove(int rollNumber) {
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        if (index < 0) {
+            evictIfFull();
+            return null;
+        }
+        Student removed = new Student(new String(leaf.names[index], StandardCharsets.UTF_8), rollNumber, department(leaf.departments[index]));
+        removed.setPresent(leaf.present[index]);
+        removeRow(leaf, index);
+        evictIfFull();
+        return removed;
+    }
+
+    @Override
+    public synchronized void update(Student student, String name, Department department) {
+        int rollNumber = student.getRollNumber();
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        if (index < 0) {
+            evictIfFull();
+            throw new IllegalStateException("No student with roll number " + rollNumber + " in the tree.");
+        }
+        put(rollNumber, encodeName(name), department, leaf.present[index]);
+    }
+
+    @Override
+    public synchronized int count(Department department) {
+        return counts[department.ordinal()];
+    }
+
+    // Scans the whole tree; only the rows of the department are handed out
+    @Override
+    public Iterable<Student> byDepartment(Department department) {
+        return () -> new Scan(Integer.MIN_VALUE, department);
+    }
+
+    // Students from the roll number on, in roll number order
+    public Iterator<Student> scanFrom(int rollNumber) {
+        return new Scan(rollNumber, null);
+    }
+
+    @Override
+    public synchronized void load(StudentSnapshot snapshot) {
+        for (int i = 0; i < snapshot.getStudentCount(); i++) {
+            Department department = snapshot.getDepartment(i);
+            if (department == null) {
+                System.out.println("Skipping roll number " + snapshot.getRollNumber(i) + " with an invalid department.");
+                continue;
+            }
+            put(snapshot.getRollNumber(i), encodeName(snapshot.getName(i)), department, snapshot.isPresent(i));
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        try {
+            cache.clear();
+            channel.truncate(0);
+            initialize();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Iterator<Student> iterator() {
+        return new Scan(Integer.MIN_VALUE, null);
+    }
+
+    public synchronized String getName(int rollNumber) {
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        String name = index >= 0 ? new String(leaf.names[index], StandardCharsets.UTF_8) : null;
+        evictIfFull();
+        return name;
+    }
+
+    public synchronized Department getDepartment(int rollNumber) {
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        Department department = index >= 0 ? department(leaf.departments[index]) : null;
+        evictIfFull();
+        return department;
+    }
+
+    public synchronized boolean isPresent(int rollNumber) {
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        boolean present = index >= 0 && leaf.present[index];
+        evictIfFull();
+        return present;
+    }
+
+    public synchronized void setPresent(int rollNumber, boolean present) {
+        Page leaf = leafFor(rollNumber, null, null);
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        if (index >= 0 && leaf.present[index] != present) {
+            leaf.present[index] = present;
+            leaf.dirty = true;
+        }
+        evictIfFull();
+    }
+
+    public synchronized void setName(int rollNumber, String name) {
+        Department department = getDepartment(rollNumber);
+        if (department != null) {
+            put(rollNumber, encodeName(name), department, isPresent(rollNumber));
+        }
+    }
+
+    public synchronized void setDepartment(int rollNumber, Department department) {
+        String name = getName(rollNumber);
+        if (name != null) {
+            put(rollNumber, encodeName(name), department, isPresent(rollNumber));
+        }
+    }
+
+    // Writes every change so far to the file
+    public synchronized void flush() throws IOException {
+        checkpoint();
+    }
+
+    public synchronized void close() throws IOException {
+        try {
+            checkpoint();
+        } finally {
+            channel.close();
+            pendingChannel.close();
+        }
+    }
+
+    private static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Name is longer than " + MAX_NAME_BYTES + " bytes.");
+        }
+        return bytes;
+    }
+
+    private static Department department(byte ordinal) {
+        Department[] departments = Department.values();
+        return ordinal >= 0 && ordinal < departments.length ? departments[ordinal] : null;
+    }
+
+    // Inserts the row, replacing any row with the same roll number, and splits pages up the path as they fill
+    private void put(int rollNumber, byte[] name, Department department, boolean present) {
+        int[] path = new int[MAX_DEPTH];
+        int[] positions = new int[MAX_DEPTH];
+        Page leaf = leafFor(rollNumber, path, positions);
+        int depth = pathDepth;
+
+        int index = java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber);
+        if (index >= 0) {
+            removeRow(leaf, index);
+        }
+        index = -java.util.Arrays.binarySearch(leaf.keys, 0, leaf.count, rollNumber) - 1;
+        int moved = leaf.count - index;
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, moved);
+        System.arraycopy(leaf.departments, index, leaf.departments, index + 1, moved);
+        System.arraycopy(leaf.present, index, leaf.present, index + 1, moved);
+        System.arraycopy(leaf.names, index, leaf.names, index + 1, moved);
+        leaf.keys[index] = rollNumber;
+        leaf.departments[index] = (byte) department.ordinal();
+        leaf.present[index] = present;
+        leaf.names[index] = name;
+        leaf.count++;
+        leaf.bytes += ROW_HEADER + name.length;
+        leaf.dirty = true;
+        size++;
+        counts[department.ordinal()]++;
+        headerDirty = true;
+
+        if (leaf.bytes <= PAGE_SIZE) {
+            evictIfFull();
+            return;
+        }
+        Page right = splitLeaf(leaf);
+        int separator = right.keys[0];
+        int child = right.id;
+        for (int level = depth - 1; level >= 0; level--) {
+            Page parent = page(path[level]);
+            int position = positions[level];
+            System.arraycopy(parent.keys, position, parent.keys, position + 1, parent.count - position);
+            System.arraycopy(parent.children, position + 1, parent.children, position + 2, parent.count - position);
+            parent.keys[position] = separator;
+            parent.children[position + 1] = child;
+            parent.count++;
+            parent.dirty = true;
+            if (parent.count <= MAX_KEYS) {
+                evictIfFull();
+                return;
+            }
+            // The middle key moves up rather than staying in either half
+            int middle = parent.count / 2;
+            Page sibling = newPage(false);
+            sibling.count = parent.count - middle - 1;
+            System.arraycopy(parent.keys, middle + 1, sibling.keys, 0, sibling.count);
+            System.arraycopy(parent.children, middle + 1, sibling.children, 0, sibling.count + 1);
+            separator = parent.keys[middle];
+            parent.count = middle;
+            child = sibling.id;
+        }
+
+        Page newRoot = newPage(false);
+        newRoot.count = 1;
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = root;
+        newRoot.children[1] = child;
+        root = newRoot.id;
+        evictIfFull();
+    }
+
+    private void removeRow(Page leaf, int index) {
+        Department department = department(leaf.departments[index]);
+        if (department != null) {
+            counts[department.ordinal()]--;
+        }
+        leaf.bytes -= ROW_HEADER + leaf.names[index].length;
+        int moved = leaf.count - index - 1;
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, moved);
+        System.arraycopy(leaf.departments, index + 1, leaf.departments, index, moved);
+        System.arraycopy(leaf.present, index + 1, leaf.present, index, moved);
+        System.arraycopy(leaf.names, index + 1, leaf.names, index, moved);
+        leaf.count--;
+        leaf.names[leaf.count] = null;
+        leaf.dirty = true;
+        size--;
+        headerDirty = true;
+    }
+
+    // Moves the upper half of the rows by size into a new leaf after this one
+    private Page splitLeaf(Page leaf) {
+        Page right = newPage(true);
+        int half = (leaf.bytes - LEAF_HEADER) / 2;
+        int split = 0;
+        int used = 0;
+        while (split < leaf.count - 1 && used < half) {
+            used += ROW_HEADER + leaf.names[split].length;
+            split++;
+        }
+        right.count = leaf.count - split;
+        System.arraycopy(leaf.keys, split, right.keys, 0, right.count);
+        System.arraycopy(leaf.departments, split, right.departments, 0, right.count);
+        System.arraycopy(leaf.present, split, right.present, 0, right.count);
+        System.arraycopy(leaf.names, split, right.names, 0, right.count);
+        java.util.Arrays.fill(leaf.names, split, leaf.count, null);
+        right.bytes = LEAF_HEADER + (leaf.bytes - LEAF_HEADER - used);
+        leaf.bytes = LEAF_HEADER + used;
+        leaf.count = split;
+        right.next = leaf.next;
+        leaf.next = right.id;
+        leaf.dirty = true;
+        return right;
+    }
+
+    // Number of internal pages passed by the last leafFor call
+    private int pathDepth;
+
+    // Descends to the leaf that holds or would hold the roll number. When arrays are given, the
+    // internal pages passed and the child taken in each are recorded in them.
+    private Page leafFor(int rollNumber, int[] path, int[] positions) {
+        Page page = page(root);
+        int depth = 0;
+        while (!page.leaf) {
+            int low = 0;
+            int high = page.count;
+            // First key above the roll number; keys equal to a separator live to its right
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (page.keys[middle] <= rollNumber) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            if (path != null) {
+                path[depth] = page.id;
+                positions[depth] = low;
+            }
+            depth++;
+            page = page(page.children[low]);
+        }
+        pathDepth = depth;
+        return page;
+    }
+
+    private Page page(int id) {
+        Page page = cache.get(id);
+        if (page != null) {
+            return page;
+        }
+        try {
+            pageBuffer.clear();
+            while (pageBuffer.hasRemaining()) {
+                if (channel.read(pageBuffer, (long) id * PAGE_SIZE + pageBuffer.position()) < 0) {
+                    throw new IOException("Page " + id + " is past the end of " + FILE_NAME + ".");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pageBuffer.flip();
+        page = decode(id, pageBuffer);
+        cache.put(id, page);
+        return page;
+    }
+
+    private Page newPage(boolean leaf) {
+        Page page = new Page(pageCount++, leaf);
+        page.dirty = true;
+        headerDirty = true;
+        cache.put(page.id, page);
+        return page;
+    }
+
+    // Runs only between operations, so a checkpoint never sees a half-done split
+    private void evictIfFull() {
+        if (cache.size() <= cachePages) {
+            return;
+        }
+        try {
+            Iterator<Page> pages = cache.values().iterator();
+            while (cache.size() > cachePages) {
+                Page eldest = pages.next();
+                if (eldest.dirty) {
+                    checkpoint();
+                }
+                pages.remove();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void initialize() throws IOException {
+        root = 1;
+        pageCount = 1;
+        size = 0;
+        java.util.Arrays.fill(counts, 0);
+        newPage(true);
+        checkpoint();
+    }
+
+    private void readHeader() throws IOException {
+        pageBuffer.clear();
+        channel.read(pageBuffer, 0);
+        pageBuffer.flip();
+        if (pageBuffer.remaining() < 20 + 4 * counts.length || pageBuffer.getInt() != MAGIC) {
+            throw new IOException(FILE_NAME + " is not a student tree.");
+        }
+        if (pageBuffer.getInt() != VERSION) {
+            throw new IOException("Unsupported " + FILE_NAME + " version.");
+        }
+        root = pageBuffer.getInt();
+        pageCount = pageBuffer.getInt();
+        size = pageBuffer.getInt();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = pageBuffer.getInt();
+        }
+    }
+
+    private void encodeHeader(ByteBuffer buffer) {
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(root).putInt(pageCount).putInt(size);
+        for (int count : counts) {
+            buffer.putInt(count);
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.flip();
+    }
+
+    private static void encode(Page page, ByteBuffer buffer) {
+        buffer.clear();
+        if (page.leaf) {
+            buffer.put(LEAF).putShort((short) page.count).putInt(page.next);
+            for (int i = 0; i < page.count; i++) {
+                buffer.putInt(page.keys[i]).put(page.departments[i]).put((byte) (page.present[i] ? 1 : 0))
+                        .putShort((short) page.names[i].length).put(page.names[i]);
+            }
+        } else {
+            buffer.put(INTERNAL).putShort((short) page.count).putInt(page.children[0]);
+            for (int i = 0; i < page.count; i++) {
+                buffer.putInt(page.keys[i]).putInt(page.children[i + 1]);
+            }
+        }
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.flip();
+    }
+
+    private static Page decode(int id, ByteBuffer buffer) {
+        byte type = buffer.get();
+        Page page = new Page(id, type == LEAF);
+        page.count = buffer.getShort() & 0xFFFF;
+        if (page.leaf) {
+            page.next = buffer.getInt();
+            for (int i = 0; i < page.count; i++) {
+                page.keys[i] = buffer.getInt();
+                page.departments[i] = buffer.get();
+                page.present[i] = buffer.get() != 0;
+                byte[] name = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(name);
+                page.names[i] = name;
+                page.bytes += ROW_HEADER + name.length;
+            }
+        } else {
+            page.children[0] = buffer.getInt();
+            for (int i = 0; i < page.count; i++) {
+                page.keys[i] = buffer.getInt();
+                page.children[i + 1] = buffer.getInt();
+            }
+        }
+        return page;
+    }
+
+    // Pending file: [page id][page] for the header and every dirty page, then [magic][page count][CRC32]
+    private void checkpoint() throws IOException {
+        List<Page> dirty = new ArrayList<>();
+        for (Page page : cache.values()) {
+            if (page.dirty) {
+                dirty.add(page);
+            }
+        }
+        if (dirty.isEmpty() && !headerDirty) {
+            return;
+        }
+
+        CRC32 crc = new CRC32();
+        ByteBuffer id = ByteBuffer.allocate(4);
+        long position = 0;
+        encodeHeader(pageBuffer);
+        position = writePending(0, id, position, crc);
+        for (Page page : dirty) {
+            encode(page, pageBuffer);
+            position = writePending(page.id, id, position, crc);
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(16);
+        trailer.putInt(PENDING_MAGIC).putInt(dirty.size() + 1).putLong(crc.getValue()).flip();
+        writeFully(pendingChannel, trailer, position);
+        pendingChannel.force(false);
+
+        encodeHeader(pageBuffer);
+        writeFully(channel, pageBuffer, 0);
+        for (Page page : dirty) {
+            encode(page, pageBuffer);
+            writeFully(channel, pageBuffer, (long) page.id * PAGE_SIZE);
+            page.dirty = false;
+        }
+        channel.force(false);
+        pendingChannel.truncate(0);
+        headerDirty = false;
+    }
+
+    private long writePending(int pageId, ByteBuffer id, long position, CRC32 crc) throws IOException {
+        id.clear();
+        id.putInt(pageId).flip();
+        crc.update(id.array(), 0, 4);
+        crc.update(pageBuffer.array(), 0, PAGE_SIZE);
+        writeFully(pendingChannel, id, position);
+        writeFully(pendingChannel, pageBuffer, position + 4);
+        return position + 4 + PAGE_SIZE;
+    }
+
+    // Copies a complete pending file into place; a torn one is dropped, since the tree was not touched yet
+    private void recoverPending() throws IOException {
+        long length = pendingChannel.size();
+        if (length >= 16) {
+            ByteBuffer trailer = ByteBuffer.allocate(16);
+            pendingChannel.read(trailer, length - 16);
+            trailer.flip();
+            int count = trailer.getInt() == PENDING_MAGIC ? trailer.getInt() : -1;
+            long expectedCrc = trailer.getLong();
+            if (count > 0 && length == 16 + (long) count * (4 + PAGE_SIZE)) {
+                CRC32 crc = new CRC32();
+                ByteBuffer entry = ByteBuffer.allocate(4 + PAGE_SIZE);
+                for (int i = 0; i < count; i++) {
+                    readFully(entry, (long) i * entry.capacity());
+                    crc.update(entry.array(), 0, entry.capacity());
+                }
+                if (crc.getValue() == expectedCrc) {
+                    for (int i = 0; i < count; i++) {
+                        readFully(entry, (long) i * entry.capacity());
+                        int pageId = entry.getInt();
+                        writeFully(channel, entry, (long) pageId * PAGE_SIZE);
+                    }
+                    channel.force(false);
+                }
+            }
+        }
+        pendingChannel.truncate(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (pendingChannel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel target, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += target.write(buffer, position);
+        }
+    }
+
+    // Hands out one leaf's matching roll numbers at a time, so no page is held between calls
+    private final class Scan implements Iterator<Student> {
+        private final Department department;
+        private final int from;
+        private int leaf = -1;
+        private int[] batch = new int[0];
+        private int position;
+
+        Scan(int from, Department department) {
+            this.from = from;
+            this.department = department;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (position == batch.length && leaf != 0) {
+                refill();
+            }
+            return position < batch.length;
+        }
+
+        @Override
+        public Student next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return new Student(DiskStudentStore.this, batch[position++]);
+        }
+
+        private void refill() {
+            synchronized (DiskStudentStore.this) {
+                Page page = leaf < 0 ? leafFor(from, null, null) : page(leaf);
+                int start = 0;
+                if (leaf < 0) {
+                    int found = java.util.Arrays.binarySearch(page.keys, 0, page.count, from);
+                    start = found >= 0 ? found : -found - 1;
+                }
+                int[] rollNumbers = new int[page.count - start];
+                int count = 0;
+                for (int i = start; i < page.count; i++) {
+                    if (department == null || page.departments[i] == department.ordinal()) {
+                        rollNumbers[count++] = page.keys[i];
+                    }
+                }
+                batch = count == rollNumbers.length ? rollNumbers : java.util.Arrays.copyOf(rollNumbers, count);
+                position = 0;
+                leaf = page.next;
+                evictIfFull();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package hostel;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// One Student object per student, with a list, a roll number map and per-department sets over them
+class HeapStudentStore implements StudentStore {
+    private final List<Student> students = new ArrayList<>();
+    private IntObjectMap<Student> studentsByRollNumber = new IntObjectMap<>();
+    private final EnumMap<Department, LinkedHashSet<Student>> studentsByDepartment = new EnumMap<>(Department.class);
+
+    public HeapStudentStore() {
+        for (Department department : Department.values()) {
+            studentsByDepartment.put(department, new LinkedHashSet<>());
+        }
+    }
+
+    @Override
+    public int size() {
+        return students.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return students.isEmpty();
+    }
+
+    @Override
+    public boolean contains(int rollNumber) {
+        return studentsByRollNumber.containsKey(rollNumber);
+    }
+
+    @Override
+    public Student get(int rollNumber) {
+        return studentsByRollNumber.get(rollNumber);
+    }
+
+    @Override
+    public Student add(Student student) {
+        students.add(student);
+        studentsByRollNumber.put(student.getRollNumber(), student);
+        studentsByDepartment.get(student.getDepartment()).add(student);
+        return student;
+    }
+
+    @Override
+    public Student remove(int rollNumber) {
+        Student student = studentsByRollNumber.remove(rollNumber);
+        if (student != null) {
+            students.remove(student);
+            studentsByDepartment.get(student.getDepartment()).remove(student);
+        }
+        return student;
+    }
+
+    @Override
+    public void update(Student student, String name, Department department) {
+        if (department != student.getDepartment()) {
+            studentsByDepartment.get(student.getDepartment()).remove(student);
+            studentsByDepartment.get(department).add(student);
+        }
+        student.setName(name);
+        student.setDepartment(department);
+    }
+
+    @Override
+    public int count(Department department) {
+        return studentsByDepartment.get(department).size();
+    }
+
+    @Override
+    public Iterable<Student> byDepartment(Department department) {
+        return studentsByDepartment.get(department);
+    }
+
+    // Creates students straight from the mapped snapshot columns; names are decoded on first use
+    @Override
+    public void load(StudentSnapshot snapshot) {
+        int studentCount = snapshot.getStudentCount();
+        if (students.isEmpty()) {
+            studentsByRollNumber = new IntObjectMap<>(studentCount);
+        }
+        for (int i = 0; i < studentCount; i++) {
+            if (snapshot.getDepartment(i) == null) {
+                System.out.println("Skipping roll number " + snapshot.getRollNumber(i) + " with an invalid department.");
+                continue;
+            }
+            add(new Student(snapshot, i));
+        }
+    }
+
+    @Override
+    public void clear() {
+        students.clear();
+        studentsByRollNumber.clear();
+        for (LinkedHashSet<Student> departmentStudents : studentsByDepartment.values()) {
+            departmentStudents.clear();
+        }
+    }
+
+    @Override
+    public java.util.Iterator<Student> iterator() {
+        return students.iterator();
+    }
+}
@@ -0,0 +1,210 @@
+package hostel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Occupancy and attendance counters kept up to date on every change, so a statistic costs a few
+// reads instead of a pass over every student and room. Department counters change under the
+// roster and attendance locks; room counters change under the lock of the room concerned.
+class HostelAggregates {
+    // Counts for one group of students, used both for the counters and for ad-hoc group-bys
+    static final class Counts {
+        private long students;
+        private long present;
+        private long allocated;
+
+        public void add(Student student, boolean allocated) {
+            students++;
+            if (student.isPresent()) {
+                present++;
+            }
+            if (allocated) {
+                this.allocated++;
+            }
+        }
+
+        public Counts merge(Counts other) {
+            students += other.students;
+            present += other.present;
+            allocated += other.allocated;
+            return this;
+        }
+
+        public long getStudents() {
+            return students;
+        }
+
+        public long getPresent() {
+            return present;
+        }
+
+        public long getAllocated() {
+            return allocated;
+        }
+
+        public double getPresentPercentage() {
+            return students == 0 ? 0 : present * 100.0 / students;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d students, %d present (%.1f%%), %d allocated", students, present, getPresentPercentage(), allocated);
+        }
+    }
+
+    private final AtomicLongArray students = new AtomicLongArray(Department.values().length);
+    private final AtomicLongArray present = new AtomicLongArray(Department.values().length);
+    private final AtomicLongArray allocated = new AtomicLongArray(Department.values().length);
+    private final AtomicLong rooms = new AtomicLong();
+    // Rooms not in the registry's free-bed set, which includes a room between creation and its first classification
+    private final AtomicLong fullRooms = new AtomicLong();
+    private final AtomicLong emptyRooms = new AtomicLong();
+    private final AtomicLong beds = new AtomicLong();
+    private final AtomicLong occupiedBeds = new AtomicLong();
+
+    public void studentAdded(Department department, boolean isPresent) {
+        students.incrementAndGet(department.ordinal());
+        if (isPresent) {
+            present.incrementAndGet(department.ordinal());
+        }
+    }
+
+    // The student's room is given up separately, through studentDeallocated
+    public void studentRemoved(Department department, boolean isPresent) {
+        students.decrementAndGet(department.ordinal());
+        if (isPresent) {
+            present.decrementAndGet(department.ordinal());
+        }
+    }
+
+    public void departmentChanged(Department from, Department to, boolean isPresent, boolean isAllocated) {
+        if (from == to) {
+            return;
+        }
+        studentRemoved(from, isPresent);
+        studentAdded(to, isPresent);
+        if (isAllocated) {
+            allocated.decrementAndGet(from.ordinal());
+            allocated.incrementAndGet(to.ordinal());
+        }
+    }
+
+    public void presenceChanged(Department department, boolean isPresent) {
+        present.addAndGet(department.ordinal(), isPresent ? 1 : -1);
+    }
+
+    public void studentAllocated(Department department) {
+        allocated.incrementAndGet(department.ordinal());
+        occupiedBeds.incrementAndGet();
+    }
+
+    public void studentDeallocated(Department department) {
+        allocated.decrementAndGet(department.ordinal());
+        occupiedBeds.decrementAndGet();
+    }
+
+    public void roomAdded(int capacity) {
+        rooms.incrementAndGet();
+        fullRooms.incrementAndGet();
+        beds.addAndGet(capacity);
+    }
+
+    public void capacityChanged(int from, int to) {
+        beds.addAndGet(to - from);
+    }
+
+    // Mirrors a room's move between the registry's free-bed and empty-room sets
+    public void roomClassified(boolean wasFree, boolean wasEmpty, boolean isFree, boolean isEmpty) {
+        if (wasFree != isFree) {
+            fullRooms.addAndGet(isFree ? -1 : 1);
+        }
+        if (wasEmpty != isEmpty) {
+            emptyRooms.addAndGet(isEmpty ? 1 : -1);
+        }
+    }
+
+    // Replaces the student counters with a count of the roster, after it was loaded in bulk
+    public void recountStudents(Iterable<Student> roster) {
+        long[] counted = new long[students.length()];
+        long[] presentCounted = new long[present.length()];
+        for (Student student : roster) {
+            counted[student.getDepartment().ordinal()]++;
+            if (student.isPresent()) {
+                presentCounted[student.getDepartment().ordinal()]++;
+            }
+        }
+        for (int i = 0; i < counted.length; i++) {
+            students.set(i, counted[i]);
+            present.set(i, presentCounted[i]);
+        }
+    }
+
+    public void clearStudents() {
+        for (int i = 0; i < students.length(); i++) {
+            students.set(i, 0);
+            present.set(i, 0);
+        }
+    }
+
+    public void clearRooms() {
+        for (int i = 0; i < allocated.length(); i++) {
+            allocated.set(i, 0);
+        }
+        rooms.set(0);
+        fullRooms.set(0);
+        emptyRooms.set(0);
+        beds.set(0);
+        occupiedBeds.set(0);
+    }
+
+    public Counts getCounts(Department department) {
+        Counts counts = new Counts();
+        counts.students = students.get(department.ordinal());
+        counts.present = present.get(department.ordinal());
+        counts.allocated = allocated.get(department.ordinal());
+        return counts;
+    }
+
+    public Counts getTotalCounts() {
+        Counts total = new Counts();
+        for (Department department : Department.values()) {
+            total.merge(getCounts(department));
+        }
+        return total;
+    }
+
+    public long getRoomCount() {
+        return rooms.get();
+    }
+
+    public long getFullRoomCount() {
+        return fullRooms.get();
+    }
+
+    public long getEmptyRoomCount() {
+        return emptyRooms.get();
+    }
+
+    public long getBedCount() {
+        return beds.get();
+    }
+
+    public long getOccupiedBedCount() {
+        return occupiedBeds.get();
+    }
+
+    public long getFreeBedCount() {
+        return beds.get() - occupiedBeds.get();
+    }
+
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        for (Department department : Department.values()) {
+            builder.append(String.format("%-5s %s%n", department, getCounts(department)));
+        }
+        builder.append(String.format("%-5s %s%n", "All", getTotalCounts()));
+        builder.append(String.format("Rooms: %d (%d full, %d empty), beds: %d (%d free)", getRoomCount(), getFullRoomCount(),
+                getEmptyRoomCount(), getBedCount(), getFreeBedCount()));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,2223 @@
+package hostel;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.InputMismatchException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+class HostelManagementSystem {
+    private RoomRegistry roomRegistry;
+    private StudentStore store;
+    private MutationJournal journal;
+    private AttendanceHistory attendanceHistory;
+    private boolean snapshotOutdated;
+    // Built on the first name search so a cold start does not decode every name
+    private NameIndex nameIndex;
+    private static final int MAX_SEARCH_RESULTS = 10;
+    private static final int STUDENTS_PER_PAGE = 20;
+    private static final int ROOMS_PER_PAGE = 5;
+    private final File directory;
+    private final HostelMetrics metrics = new HostelMetrics();
+    private final RenderedViews views = new RenderedViews();
+    private final HostelAggregates aggregates = new HostelAggregates();
+    private static final int GROUP_BY_CHUNK = 4096;
+    private static final long UNWRITTEN = Long.MAX_VALUE;
+    // Every change, in the order the ordering locks applied it; sized with -Dhostel.feed.size
+    private final ChangeFeed changes = new ChangeFeed(Integer.getInteger("hostel.feed.size", 1 << 16));
+    // Set with -Dhostel.rooms=mapped; room membership then lives in this file instead of the journal
+    private RoomAllocationFile roomAllocations;
+    // Set with -Dhostel.store=disk, when it is also the store; the rows then live in the tree
+    // instead of the snapshots, which carry only the rooms
+    private DiskStudentStore diskStore;
+    private static final String STUDENT_DATA_FILE = "student_data.txt";
+    private static final String ATTENDANCE_FILE = "attendance.txt";
+    private BufferedWriter studentDataWriter;
+    // While a batch is open, records and file appends are made durable once when it ends
+    private volatile boolean batching;
+    private final AtomicLong lastBatchRecord = new AtomicLong();
+    // Roster changes take the write lock. Everything else, including room allocation and
+    // attendance, shares the read lock and is ordered by the finer-grained locks below it.
+    // Waiting for the journal to be durable always happens after every lock is released.
+    private final ReentrantReadWriteLock rosterLock = new ReentrantReadWriteLock();
+    // Orders attendance marks with their journal records and attendance file writes
+    private final Object attendanceLock = new Object();
+    private final Object nameIndexLock = new Object();
+    // Roll numbers in ascending order, for keyset pages over the heap and columnar stores. Built by
+    // the first page after it was dropped; kept while students are added in order and removed.
+    private int[] rollNumberOrder;
+    private int rollNumberOrderSize;
+    private final Object rollNumberOrderLock = new Object();
+
+    public HostelManagementSystem() {
+        this(new File("."));
+    }
+
+    // Keeps every data file of the hostel in the directory
+    public HostelManagementSystem(File directory) {
+        this.directory = directory;
+        roomRegistry = new RoomRegistry(aggregates);
+        // -Dhostel.store=columnar keeps the roster in primitive columns instead of one object per student,
+        // and -Dhostel.store=disk keeps it in a B+tree file with only a bounded page cache on the heap
+        String storeMode = System.getProperty("hostel.store");
+        boolean enteringDiskStore = "disk".equals(storeMode) && !DiskStudentStore.exists(directory);
+        DiskStudentStore leftDiskStore = openStudentStore(storeMode);
+        journal = new MutationJournal(directory);
+        journal.setMetrics(metrics);
+        metrics.register(directory);
+
+        // The journal is the source of truth once it exists; the text files seed it on first run
+        boolean seedJournal = !journal.exists();
+        if (seedJournal) {
+            loadStudentData();
+            loadAttendanceData();
+        } else {
+            loadJournalData();
+        }
+
+        // A file left by an earlier run in mapped mode is read even when the mode is off, since
+        // the journal never saw the room changes it holds
+        boolean mappedRooms = "mapped".equals(System.getProperty("hostel.rooms"));
+        if (mappedRooms || new RoomAllocationFile(directory, metrics).exists()) {
+            openRoomAllocations();
+        }
+
+        journal.setCompactionHandler(this::compactJournal);
+        try {
+            journal.start();
+            finishModeChanges(mappedRooms, seedJournal || snapshotOutdated || enteringDiskStore, leftDiskStore);
+        } catch (IOException e) {
+            System.out.println("Error occurred while opening the journal.");
+        }
+
+        attendanceHistory = new AttendanceHistory(directory);
+        try {
+            attendanceHistory.open();
+        } catch (IOException e) {
+            System.out.println("Error occurred while opening attendance history.");
+            attendanceHistory.close();
+            attendanceHistory = null;
+        }
+    }
+
+    // Opens the store for the mode. A tree left by an earlier run in disk mode, when the mode is
+    // now off, holds rows the snapshots do not, so they are copied into the new store before the
+    // journal is replayed over them; the tree is returned for finishModeChanges to delete.
+    private DiskStudentStore openStudentStore(String storeMode) {
+        boolean diskMode = "disk".equals(storeMode);
+        DiskStudentStore tree = null;
+        if (diskMode || DiskStudentStore.exists(directory)) {
+            try {
+                tree = DiskStudentStore.open(directory, Integer.getInteger("hostel.store.cachePages", 1024));
+            } catch (IOException e) {
+                System.out.println("Error occurred while opening the student tree.");
+            }
+        }
+        if (diskMode && tree != null) {
+            diskStore = tree;
+            store = diskStore;
+            return null;
+        }
+        store = "columnar".equals(storeMode) ? new ColumnarStudentStore() : new HeapStudentStore();
+        if (tree != null) {
+            for (Student student : tree) {
+                store.add(detach(student));
+            }
+        }
+        return tree;
+    }
+
+    // Runs once the journal has started, and leaves the data in the layout of the current modes:
+    // an allocation file whose mode is off goes back into the journal, a snapshot is written when
+    // the journal needs a fresh one, and a tree whose mode is off is deleted once that snapshot
+    // holds its rows
+    private void finishModeChanges(boolean mappedRooms, boolean snapshotNeeded, DiskStudentStore leftDiskStore) {
+        if (!mappedRooms && roomAllocations != null) {
+            leaveRoomAllocations();
+        } else if (snapshotNeeded || leftDiskStore != null) {
+            compact();
+        }
+        if (leftDiskStore != null) {
+            leaveDiskStore(leftDiskStore);
+        }
+    }
+
+    public void loadJournalData() {
+        long start = metrics.start(Metric.LOAD_JOURNAL_DATA);
+        try {
+            try {
+                StudentSnapshot snapshot = journal.openSnapshot();
+                if (snapshot != null) {
+                    loadSnapshot(snapshot);
+                    // Rewrite snapshots from older versions in the current format once replay is done
+                    snapshotOutdated = snapshot.getVersion() != StudentSnapshot.VERSION;
+                }
+                journal.replay(this::applyRecord);
+                // Counted once loaded, since rows loaded in bulk, or already in a disk store, were never added one by one
+                aggregates.recountStudents(store);
+                System.out.println("Journal data loaded successfully.");
+            } catch (IOException e) {
+                System.out.println("Error occurred while loading journal data.");
+            }
+        } finally {
+            metrics.record(Metric.LOAD_JOURNAL_DATA, start);
+        }
+    }
+
+    private void loadSnapshot(StudentSnapshot snapshot) {
+        store.load(snapshot);
+        for (int room = 0; room < snapshot.getRoomCount(); room++) {
+            Room target = roomRegistry.getOrCreateRoom(snapshot.getRoomNumber(room));
+            roomRegistry.setCapacity(target, snapshot.getRoomCapacity(room));
+            for (int member = 0; member < snapshot.getMemberCount(room); member++) {
+                Student student = store.get(snapshot.getMemberRollNumber(room, member));
+                if (student != null) {
+                    roomRegistry.allocate(target, student);
+                }
+            }
+        }
+    }
+
+    // Rebuilds every room from the allocation file, replacing those loaded from the snapshot and
+    // journal. The first time, the file is created from those rooms instead.
+    private void openRoomAllocations() {
+        RoomAllocationFile file = new RoomAllocationFile(directory, metrics);
+        boolean existed = file.exists();
+        try {
+            if (existed) {
+                roomRegistry.clear();
+            }
+            file.open((roomNumber, capacity, rollNumbers, count) -> {
+                Room room = roomRegistry.getOrCreateRoom(roomNumber);
+                roomRegistry.setCapacity(room, Math.max(capacity, count));
+                List<Student> occupants = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    // Students removed just before a crash may still hold a bed in the file
+                    Student student = store.get(rollNumbers[i]);
+                    if (student != null) {
+                        occupants.add(student);
+                    }
+                }
+                roomRegistry.allocateAll(room, occupants);
+            });
+            if (!existed) {
+                for (Room room : roomRegistry.getRooms()) {
+                    file.roomCreated(room.getRoomNumber(), room.getCapacity());
+                    for (Student student : room.getStudents()) {
+                        file.bedTaken(room.getRoomNumber(), student.getRollNumber());
+                    }
+                }
+            }
+            roomRegistry.setAllocationFile(file);
+            roomAllocations = file;
+        } catch (IOException e) {
+            System.out.println("Error occurred while opening the room allocation file.");
+            file.close();
+        }
+    }
+
+    // Hands the rooms back to the journal: once a snapshot holding them is on disk, the file goes
+    private void leaveRoomAllocations() {
+        roomRegistry.setAllocationFile(null);
+        roomAllocations.close();
+        if (compact() && journal.awaitCompaction()) {
+            new File(directory, RoomAllocationFile.FILE_NAME).delete();
+            roomAllocations = null;
+        } else {
+            System.out.println("Error occurred while moving room allocations into the journal.");
+            // Room changes keep going to the file until a later start manages the move
+            roomAllocations = null;
+            openRoomAllocations();
+        }
+    }
+
+    // Deletes the tree once a snapshot holding its rows is written; otherwise it is kept for the next start
+    private void leaveDiskStore(DiskStudentStore tree) {
+        try {
+            tree.close();
+        } catch (IOException e) {
+            System.out.println("Error occurred while closing the student tree.");
+            return;
+        }
+        if (journal.awaitCompaction()) {
+            DiskStudentStore.delete(directory);
+        } else {
+            System.out.println("Error occurred while moving students out of the student tree.");
+        }
+    }
+
+    // Room changes are only journaled while the allocation file is not holding them
+    private long appendRoomChange(JournalRecord record) {
+        if (roomAllocations != null) {
+            changes.publish(record);
+            return 0;
+        }
+        return append(record);
+    }
+
+    // Readers see a change once it is applied, which may be before it is durable
+    public ChangeFeed getChangeFeed() {
+        return changes;
+    }
+
+    public HostelMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Drops every cached room and department rendering, so the next display renders it again
+    void clearRenderedViews() {
+        views.clear();
+    }
+
+    // Kept up to date on every change; reading a counter does not touch the roster
+    public HostelAggregates getAggregates() {
+        return aggregates;
+    }
+
+    // Counts for one room, from its few occupants; null if there is no such room
+    public HostelAggregates.Counts getRoomCounts(int roomNumber) {
+        Room room = roomRegistry.getRoom(roomNumber);
+        if (room == null) {
+            return null;
+        }
+        HostelAggregates.Counts counts = new HostelAggregates.Counts();
+        for (Student student : room.getStudents()) {
+            counts.add(student, true);
+        }
+        return counts;
+    }
+
+    // Ad-hoc breakdown of every student by a key the counters do not keep, such as a roll number
+    // range or a name initial. The roster is split into chunks counted in parallel on the common
+    // fork-join pool, and the per-chunk maps are merged. Changes made while the chunks are
+    // counted may or may not be seen.
+    public <K> Map<K, HostelAggregates.Counts> groupBy(Function<Student, K> key) {
+        Student[] students;
+        rosterLock.readLock().lock();
+        try {
+            students = new Student[store.size()];
+            int size = 0;
+            for (Student student : store) {
+                students[size++] = student;
+            }
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+
+        int chunkCount = (students.length + GROUP_BY_CHUNK - 1) / GROUP_BY_CHUNK;
+        return IntStream.range(0, chunkCount).parallel()
+                .mapToObj(chunk -> {
+                    Map<K, HostelAggregates.Counts> counts = new HashMap<>();
+                    for (int i = chunk * GROUP_BY_CHUNK; i < Math.min(students.length, (chunk + 1) * GROUP_BY_CHUNK); i++) {
+                        Student student = students[i];
+                        counts.computeIfAbsent(key.apply(student), k -> new HostelAggregates.Counts())
+                                .add(student, roomRegistry.getRoomOfStudent(student.getRollNumber()) != null);
+                    }
+                    return counts;
+                })
+                .reduce((merged, counts) -> {
+                    counts.forEach((k, value) -> merged.merge(k, value, HostelAggregates.Counts::merge));
+                    return merged;
+                })
+                .orElseGet(HashMap::new);
+    }
+
+    public void showStats() {
+        System.out.println(aggregates.summary());
+        System.out.println();
+        System.out.println(metrics.summary());
+    }
+
+    public void close() {
+        endBatch();
+        journal.close();
+        if (roomAllocations != null) {
+            roomAllocations.close();
+        }
+        if (diskStore != null) {
+            try {
+                diskStore.close();
+            } catch (IOException e) {
+                System.out.println("Error occurred while closing the student tree.");
+            }
+        }
+        metrics.unregister();
+        closeStudentData();
+        if (attendanceHistory != null) {
+            attendanceHistory.close();
+        }
+    }
+
+    private void applyRecord(JournalRecord record) {
+        int rollNumber = record.getRollNumber();
+        Student student = store.get(rollNumber);
+        switch (record.getType()) {
+            case ADD_STUDENT:
+                if (student == null && record.getDepartment() != null) {
+                    registerStudent(new Student(record.getName(), rollNumber, record.getDepartment()));
+                }
+                break;
+            case MODIFY_STUDENT:
+                if (student != null) {
+                    Department department = record.getDepartment() != null ? record.getDepartment() : student.getDepartment();
+                    updateStudent(student, record.getName(), department);
+                }
+                break;
+            case REMOVE_STUDENT:
+                if (student != null) {
+                    unregisterStudent(student);
+                }
+                break;
+            case ALLOCATE_ROOM:
+                if (student != null && roomRegistry.getRoomOfStudent(rollNumber) == null) {
+                    roomRegistry.allocate(roomRegistry.getOrCreateRoom(record.getRoomNumber()), student);
+                }
+                break;
+            case DEALLOCATE_ROOM:
+                roomRegistry.deallocate(rollNumber);
+                break;
+            case MARK_ATTENDANCE:
+                if (student != null) {
+                    setPresent(student, record.isPresent());
+                }
+                break;
+            case SET_ROOM_CAPACITY:
+                roomRegistry.setCapacity(roomRegistry.getOrCreateRoom(record.getRoomNumber()), record.getCapacity());
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Defers durability of every following operation until endBatch, so a run of commands
+    // costs one journal fsync and one flush of each text file instead of one per command
+    public void beginBatch() {
+        batching = true;
+    }
+
+    public void endBatch() {
+        if (!batching) {
+            return;
+        }
+        batching = false;
+        try {
+            journal.sync(lastBatchRecord.get());
+        } catch (UncheckedIOException e) {
+            System.out.println("Error occurred while writing the journal.");
+        }
+        forceRoomAllocations();
+        rosterLock.writeLock().lock();
+        try {
+            if (studentDataWriter != null) {
+                studentDataWriter.flush();
+            }
+        } catch (IOException e) {
+            System.out.println("Error occurred while saving student data.");
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+    }
+
+    // Appends the record while the lock that ordered the change is still held, and returns the
+    // sequence to pass to awaitDurable once it is released, or 0 while a batch is open. A journal
+    // that has failed returns UNWRITTEN, which no batch reaches, so awaitDurable reports it.
+    private long append(JournalRecord record) {
+        long sequence;
+        try {
+            sequence = journal.append(record);
+        } catch (UncheckedIOException e) {
+            return UNWRITTEN;
+        }
+        changes.publish(record);
+        if (batching) {
+            lastBatchRecord.accumulateAndGet(sequence, Math::max);
+            return 0;
+        }
+        return sequence;
+    }
+
+    private long appendAll(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+        long sequence;
+        try {
+            sequence = journal.appendAll(records);
+        } catch (UncheckedIOException e) {
+            return UNWRITTEN;
+        }
+        for (JournalRecord record : records) {
+            changes.publish(record);
+        }
+        if (batching) {
+            lastBatchRecord.accumulateAndGet(sequence, Math::max);
+            return 0;
+        }
+        return sequence;
+    }
+
+    // Returns false if the journal failed before every record up to the sequence was fsynced.
+    // In mapped room mode the allocation file is forced as well, since the room changes it holds
+    // were never journaled; a batch forces it once, in endBatch.
+    private boolean awaitDurable(long sequence) {
+        if (sequence > 0) {
+            long start = metrics.start(Metric.JOURNAL_SYNC);
+            try {
+                journal.sync(sequence);
+            } catch (UncheckedIOException e) {
+                return false;
+            } finally {
+                metrics.record(Metric.JOURNAL_SYNC, start);
+            }
+        }
+        return batching || forceRoomAllocations();
+    }
+
+    private boolean forceRoomAllocations() {
+        RoomAllocationFile file = roomAllocations;
+        if (file != null) {
+            try {
+                file.force();
+            } catch (UncheckedIOException e) {
+                System.out.println("Error occurred while saving room allocations.");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The change was applied in memory but will not survive a restart
+    private static OperationResult notSaved() {
+        return OperationResult.error("Error occurred while writing the journal. The change was not saved.");
+    }
+
+    // Point-in-time copy of the full state for the next snapshot; the disk store's rows are left
+    // to its own file
+    private HostelSnapshot captureSnapshot() {
+        return HostelSnapshot.capture(diskStore != null ? new HeapStudentStore() : store, roomRegistry.getRooms());
+    }
+
+    // Starts a compaction with the current state, unless the disk store could not first write
+    // every change the journal about to be dropped holds for it. Callers keep every mutation out.
+    private boolean compact() {
+        if (diskStore != null) {
+            try {
+                diskStore.flush();
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving the student tree.");
+                return false;
+            }
+        }
+        journal.compact(captureSnapshot());
+        return true;
+    }
+
+    // The write lock keeps every mutation out between capturing the state and rotating the journal
+    private void compactJournal() {
+        rosterLock.writeLock().lock();
+        try {
+            compact();
+            if (roomAllocations != null) {
+                roomAllocations.force();
+            }
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+    }
+
+    // Rooms in room number order, a page at a time
+    public void displayStudentRoomAndAttendance() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Student Room and Attendance Details:");
+        System.out.println("+------------+-------------------+----------------------+----------+");
+
+        int cursor = Integer.MIN_VALUE;
+        while (true) {
+            List<Integer> page = listRoomNumbersAfter(cursor, ROOMS_PER_PAGE + 1);
+            StringBuilder builder = new StringBuilder(1024);
+            rosterLock.readLock().lock();
+            try {
+                for (int i = 0; i < page.size() && i < ROOMS_PER_PAGE; i++) {
+                    // Only rooms changed since their last display are rendered again
+                    builder.append(views.room(roomRegistry.getRoom(page.get(i)), HostelManagementSystem::appendRoom));
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            System.out.print(builder);
+
+            if (page.size() <= ROOMS_PER_PAGE || !nextPage(scanner)) {
+                return;
+            }
+            cursor = page.get(ROOMS_PER_PAGE - 1);
+        }
+    }
+
+    private static void appendRoom(StringBuilder builder, Room room) {
+        builder.append("Room Number: ").append(room.getRoomNumber()).append('\n');
+
+        if (room.getStudents().isEmpty()) {
+            builder.append("No students in the room.\n");
+        } else {
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            builder.append("| Name                 | Roll Number | Department           | Present  |\n");
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+
+            for (Student student : room.getStudents()) {
+                student.appendRow(builder).append('\n');
+            }
+
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+        }
+    }
+
+    // Asks whether to show another page; anything but q continues
+    private static boolean nextPage(Scanner scanner) {
+        System.out.println("Press Enter for the next page or q to stop: ");
+        return scanner.hasNextLine() && !scanner.nextLine().trim().equalsIgnoreCase("q");
+    }
+
+    public void addStudent() {
+        Scanner scanner = new Scanner(System.in);
+
+        boolean validRollNumber = false;
+        int rollNumber = 0;
+
+        while (!validRollNumber) {
+            System.out.println("Enter roll number (5 digits): ");
+            try {
+                String rollNumberString = scanner.nextLine();
+                if (rollNumberString.matches("\\d{5}")) {
+                    rollNumber = Integer.parseInt(rollNumberString);
+                    validRollNumber = true;
+                } else {
+                    throw new NumberFormatException();
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid roll number. Roll number must be 5 digits.");
+            }
+        }
+
+        // Check if roll number already exists
+        if (isRollNumberExists(rollNumber)) {
+            System.out.println("Roll number already exists. Please enter a unique roll number.");
+            return;
+        }
+
+        System.out.println("Enter student name: ");
+        String name = scanner.nextLine();
+
+        // Validate name to allow only alphabetic characters
+        boolean validName = isValidName(name);
+        while (!validName) {
+            System.out.println("Invalid name. Please enter a valid name (alphabetic characters only): ");
+            name = scanner.nextLine();
+            validName = isValidName(name);
+        }
+
+        Department department = readDepartment(scanner, "Enter department (AIE, CSE, or CYS): ");
+
+        System.out.println(addStudent(name, rollNumber, department).getMessage());
+    }
+
+    public OperationResult addStudent(String name, int rollNumber, Department department) {
+        long start = metrics.start(Metric.ADD_STUDENT);
+        try {
+            if (rollNumber < 0 || rollNumber > 99999) {
+                return OperationResult.failure("Invalid roll number. Roll number must be 5 digits.");
+            }
+            if (!isValidName(name)) {
+                return OperationResult.failure("Invalid name. Please enter a valid name (alphabetic characters only).");
+            }
+            if (department == null) {
+                return OperationResult.failure("Invalid department. Please enter a valid department.");
+            }
+
+            long sequence;
+            rosterLock.writeLock().lock();
+            try {
+                if (store.contains(rollNumber)) {
+                    return OperationResult.failure("Roll number already exists. Please enter a unique roll number.");
+                }
+                Student student = registerStudent(new Student(name, rollNumber, department));
+                saveStudentData(student);
+                sequence = append(JournalRecord.addStudent(student));
+            } finally {
+                rosterLock.writeLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student added successfully.");
+        } finally {
+            metrics.record(Metric.ADD_STUDENT, start);
+        }
+    }
+
+    // Alphabetic, and short enough for a row of the disk store whatever the mode, so a roster can
+    // always move into disk mode
+    private static boolean isValidName(String name) {
+        return name != null && name.length() <= DiskStudentStore.MAX_NAME_BYTES && name.matches("[a-zA-Z]+");
+    }
+
+    private Department readDepartment(Scanner scanner, String prompt) {
+        boolean validDepartment = false;
+        Department department = null;
+
+        while (!validDepartment) {
+            System.out.println(prompt);
+
+            try {
+                department = Department.valueOf(scanner.nextLine().trim().toUpperCase());
+                validDepartment = true;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Invalid department. Please enter a valid department.");
+            }
+        }
+        return department;
+    }
+
+    // Adds a student to the roster and every index over it,
+    // and returns the instance the store now holds
+    private Student registerStudent(Student student) {
+        student = store.add(student);
+        if (nameIndex != null) {
+            nameIndex.add(student.getName(), student.getRollNumber());
+        }
+        views.departmentChanged(student.getDepartment());
+        aggregates.studentAdded(student.getDepartment(), student.isPresent());
+        if (rollNumberOrder != null) {
+            if (rollNumberOrderSize == 0 || student.getRollNumber() > rollNumberOrder[rollNumberOrderSize - 1]) {
+                if (rollNumberOrderSize == rollNumberOrder.length) {
+                    rollNumberOrder = java.util.Arrays.copyOf(rollNumberOrder, Math.max(16, rollNumberOrderSize * 2));
+                }
+                rollNumberOrder[rollNumberOrderSize++] = student.getRollNumber();
+            } else {
+                rollNumberOrder = null;
+            }
+        }
+        return student;
+    }
+
+    // Removes a student from the roster, every index over it and their room
+    private void unregisterStudent(Student student) {
+        // Deallocated first, while the stored row still names the student's department
+        roomRegistry.deallocate(student.getRollNumber());
+        // Read from the row the store hands back, as a disk store's view has nothing left to read
+        Student removed = store.remove(student.getRollNumber());
+        aggregates.studentRemoved(removed.getDepartment(), removed.isPresent());
+        if (nameIndex != null) {
+            nameIndex.remove(removed.getName(), removed.getRollNumber());
+        }
+        views.departmentChanged(removed.getDepartment());
+        if (rollNumberOrder != null) {
+            int index = java.util.Arrays.binarySearch(rollNumberOrder, 0, rollNumberOrderSize, removed.getRollNumber());
+            if (index >= 0) {
+                System.arraycopy(rollNumberOrder, index + 1, rollNumberOrder, index, rollNumberOrderSize - index - 1);
+                rollNumberOrderSize--;
+            }
+        }
+    }
+
+    // The row shows in the student's room view, so the room is marked changed
+    private void setPresent(Student student, boolean present) {
+        if (student.isPresent() != present) {
+            aggregates.presenceChanged(student.getDepartment(), present);
+        }
+        student.setPresent(present);
+        Room room = roomRegistry.getRoomOfStudent(student.getRollNumber());
+        if (room != null) {
+            room.changed();
+        }
+    }
+
+    private void updateStudent(Student student, String name, Department department) {
+        if (nameIndex != null) {
+            nameIndex.remove(student.getName(), student.getRollNumber());
+            nameIndex.add(name, student.getRollNumber());
+        }
+        views.departmentChanged(student.getDepartment());
+        aggregates.departmentChanged(student.getDepartment(), department, student.isPresent(),
+                roomRegistry.getRoomOfStudent(student.getRollNumber()) != null);
+        store.update(student, name, department);
+        views.departmentChanged(department);
+        roomRegistry.studentChanged(student);
+    }
+
+    // Callers hold nameIndexLock, since searches reuse the index's scratch rows
+    private NameIndex getNameIndex() {
+        if (nameIndex == null) {
+            nameIndex = new NameIndex();
+            for (Student student : store) {
+                nameIndex.add(student.getName(), student.getRollNumber());
+            }
+        }
+        return nameIndex;
+    }
+
+    // Callers hold rollNumberOrderLock and the roster read lock
+    private void buildRollNumberOrder() {
+        int[] order = new int[store.size()];
+        int size = 0;
+        for (Student student : store) {
+            order[size++] = student.getRollNumber();
+        }
+        java.util.Arrays.sort(order, 0, size);
+        rollNumberOrder = order;
+        rollNumberOrderSize = size;
+    }
+
+    private boolean isRollNumberExists(int rollNumber) {
+        rosterLock.readLock().lock();
+        try {
+            return store.contains(rollNumber);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    private File dataFile(String name) {
+        return new File(directory, name);
+    }
+
+    public void saveStudentData(Student student) {
+        long start = metrics.start(Metric.SAVE_STUDENT_DATA);
+        try {
+            try {
+                if (studentDataWriter == null) {
+                    studentDataWriter = new BufferedWriter(new FileWriter(dataFile(STUDENT_DATA_FILE), true));
+                }
+                String data = student.getName() + "," + student.getRollNumber() + "," + student.getDepartment();
+                studentDataWriter.write(data);
+                studentDataWriter.newLine();
+                metrics.addBytesWritten(data.length() + System.lineSeparator().length());
+                if (!batching) {
+                    studentDataWriter.flush();
+                }
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving student data.");
+            }
+        } finally {
+            metrics.record(Metric.SAVE_STUDENT_DATA, start);
+        }
+    }
+
+    private void closeStudentData() {
+        if (studentDataWriter != null) {
+            try {
+                studentDataWriter.close();
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving student data.");
+            }
+            studentDataWriter = null;
+        }
+    }
+
+    public void loadStudentData() {
+        loadStudentData(dataFile(STUDENT_DATA_FILE));
+    }
+
+    public void loadStudentData(File file) {
+        long start = metrics.start(Metric.LOAD_STUDENT_DATA);
+        try {
+            metrics.addBytesRead(file.length());
+            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String[] data = line.split(",");
+                    if (data.length == 3) {
+                        try {
+                            String name = data[0];
+                            int rollNumber = Integer.parseInt(data[1]);
+                            Department department = Department.parse(data[2]);
+                            if (department == null) {
+                                System.out.println("Invalid department in the student data file (line " + lineNumber + ").");
+                                continue;
+                            }
+                            registerStudent(new Student(name, rollNumber, department));
+                        } catch (NumberFormatException e) {
+                            // Skip only the bad row so the records after it still load
+                            System.out.println("Invalid roll number format in the student data file (line " + lineNumber + ").");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("Error occurred while loading student data.");
+            }
+        } finally {
+            metrics.record(Metric.LOAD_STUDENT_DATA, start);
+        }
+    }
+
+    public void importStudents() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter path of the file to import: ");
+        String path = scanner.nextLine().trim();
+
+        ImportResult result;
+        try {
+            result = new StudentImporter().importFile(new File(path));
+            metrics.addBytesRead(new File(path).length());
+        } catch (IOException e) {
+            System.out.println("Error occurred while reading the import file.");
+            return;
+        }
+
+        List<String> errors = new ArrayList<>(result.getErrors());
+        List<Student> imported = new ArrayList<>(result.getStudents().size());
+        long lastRecord = 0;
+        rosterLock.writeLock().lock();
+        try {
+            for (Student student : result.getStudents()) {
+                if (store.contains(student.getRollNumber())) {
+                    errors.add("Roll number " + student.getRollNumber() + " already exists.");
+                    continue;
+                }
+                imported.add(registerStudent(student));
+            }
+
+            // Persist the whole batch with one text-file write and one journal fsync
+            closeStudentData();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(dataFile(STUDENT_DATA_FILE), true))) {
+                for (Student student : imported) {
+                    String data = student.getName() + "," + student.getRollNumber() + "," + student.getDepartment();
+                    writer.write(data);
+                    writer.newLine();
+                    metrics.addBytesWritten(data.length() + System.lineSeparator().length());
+                }
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving student data.");
+            }
+            for (Student student : imported) {
+                lastRecord = append(JournalRecord.addStudent(student));
+            }
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+        if (!awaitDurable(lastRecord)) {
+            System.out.println(notSaved().getMessage());
+            return;
+        }
+
+        for (String error : errors) {
+            System.out.println(error);
+        }
+        System.out.println("Imported " + imported.size() + " students, " + errors.size() + " rows rejected.");
+    }
+
+    // Students in roll number order, a page at a time
+    public void displayAllStudents() {
+        Scanner scanner = new Scanner(System.in);
+        int cursor = -1;
+        while (true) {
+            List<Student> page = listStudentsAfter(cursor, STUDENTS_PER_PAGE + 1);
+            if (page.isEmpty()) {
+                System.out.println("No students found.");
+                return;
+            }
+
+            StringBuilder builder = new StringBuilder(128 + STUDENTS_PER_PAGE * 80);
+            if (cursor == -1) {
+                builder.append("Student Details:\n");
+            }
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            builder.append("| Name                 | Roll Number | Department           | Present  |\n");
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            for (int i = 0; i < page.size() && i < STUDENTS_PER_PAGE; i++) {
+                page.get(i).appendRow(builder).append('\n');
+            }
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            System.out.print(builder);
+
+            if (page.size() <= STUDENTS_PER_PAGE || !nextPage(scanner)) {
+                return;
+            }
+            cursor = page.get(STUDENTS_PER_PAGE - 1).getRollNumber();
+        }
+    }
+
+    public void exportStudents() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter path of the file to export to: ");
+        String path = scanner.nextLine().trim();
+        StudentExporter.Format format = null;
+        while (format == null) {
+            System.out.println("Enter format (CSV or JSONL): ");
+            format = StudentExporter.Format.parse(scanner.nextLine());
+            if (format == null) {
+                System.out.println("Invalid format. Please enter CSV or JSONL.");
+            }
+        }
+        System.out.println(exportStudents(new File(path), format).getMessage());
+    }
+
+    // Streams the whole roster, in roster order, to the file. Roster changes wait until the
+    // export has finished, so the file is a consistent picture of one moment.
+    public OperationResult exportStudents(File file, StudentExporter.Format format) {
+        long start = metrics.start(Metric.EXPORT_STUDENTS);
+        try {
+            rosterLock.readLock().lock();
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                StudentExporter exporter = new StudentExporter(channel, format);
+                for (Student student : store) {
+                    Room room = roomRegistry.getRoomOfStudent(student.getRollNumber());
+                    exporter.write(student, room == null ? -1 : room.getRoomNumber());
+                }
+                exporter.finish();
+                metrics.addBytesWritten(channel.size());
+                return OperationResult.success("Exported " + exporter.getCount() + " students to " + file + ".");
+            } catch (IOException e) {
+                return OperationResult.failure("Error occurred while exporting students.");
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+        } finally {
+            metrics.record(Metric.EXPORT_STUDENTS, start);
+        }
+    }
+
+    public void searchStudent() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter student name or roll number to search: ");
+        String searchTerm = scanner.nextLine().trim();
+
+        List<Student> matches = searchStudents(searchTerm);
+
+        if (matches.isEmpty()) {
+            System.out.println("No student found with the given search term.");
+            return;
+        }
+
+        if (searchTerm.matches("\\d{1,9}")) {
+            Student student = matches.get(0);
+            System.out.println("Student Found:");
+            System.out.println(student.toString());
+            Room room = roomRegistry.getRoomOfStudent(student.getRollNumber());
+            System.out.println(room == null ? "Room: Not allocated" : "Room: " + room.getRoomNumber());
+            return;
+        }
+
+        System.out.println("Students Found:");
+        System.out.println("+----------------------+------------+----------------------+----------+");
+        System.out.println("| Name                 | Roll Number | Department           | Present  |");
+        System.out.println("+----------------------+------------+----------------------+----------+");
+        for (Student student : matches) {
+            System.out.println(student.toString());
+        }
+        System.out.println("+----------------------+------------+----------------------+----------+");
+    }
+
+    // Copy of the student that stays valid once the roster lock is released. Students of a
+    // columnar store are views whose columns may be reallocated by a later roster change.
+    private static Student detach(Student student) {
+        Student copy = new Student(student.getName(), student.getRollNumber(), student.getDepartment());
+        copy.setPresent(student.isPresent());
+        return copy;
+    }
+
+    // Null if there is no student with the roll number
+    public Student findStudent(int rollNumber) {
+        long start = metrics.start(Metric.FIND_STUDENT);
+        try {
+            rosterLock.readLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+                return student == null ? null : detach(student);
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+        } finally {
+            metrics.record(Metric.FIND_STUDENT, start);
+        }
+    }
+
+    public List<Student> listStudents() {
+        rosterLock.readLock().lock();
+        try {
+            List<Student> students = new ArrayList<>(store.size());
+            for (Student student : store) {
+                students.add(detach(student));
+            }
+            return students;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    public List<Student> listStudents(Department department) {
+        rosterLock.readLock().lock();
+        try {
+            List<Student> students = new ArrayList<>(store.count(department));
+            for (Student student : store.byDepartment(department)) {
+                students.add(detach(student));
+            }
+            return students;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Keyset pagination: up to limit students whose roll number is above the cursor, in roll
+    // number order. The last roll number of one page is the cursor for the next; -1 starts at the
+    // beginning. Unlike an offset, the cursor stays valid while students are added and removed.
+    public List<Student> listStudentsAfter(int afterRollNumber, int limit) {
+        long start = metrics.start(Metric.LIST_STUDENTS);
+        try {
+            int[] page = new int[Math.max(limit, 0)];
+            int size = 0;
+            rosterLock.readLock().lock();
+            try {
+                if (diskStore != null) {
+                    // The tree is in roll number order, so only the page itself is read
+                    Iterator<Student> students = diskStore.scanFrom(afterRollNumber + 1);
+                    while (size < page.length && students.hasNext()) {
+                        page[size++] = students.next().getRollNumber();
+                    }
+                } else {
+                    // Writers are held off by the read lock, so the order stays valid for the page
+                    synchronized (rollNumberOrderLock) {
+                        if (rollNumberOrder == null) {
+                            buildRollNumberOrder();
+                        }
+                        int from = java.util.Arrays.binarySearch(rollNumberOrder, 0, rollNumberOrderSize, afterRollNumber + 1);
+                        from = from < 0 ? -from - 1 : from;
+                        size = Math.min(page.length, rollNumberOrderSize - from);
+                        System.arraycopy(rollNumberOrder, from, page, 0, size);
+                    }
+                }
+                List<Student> students = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    students.add(detach(store.get(page[i])));
+                }
+                return students;
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+        } finally {
+            metrics.record(Metric.LIST_STUDENTS, start);
+        }
+    }
+
+    // Up to limit room numbers above the cursor, in ascending order
+    public List<Integer> listRoomNumbersAfter(int afterRoomNumber, int limit) {
+        int[] page = new int[Math.max(limit, 0)];
+        int size = 0;
+        for (Room room : roomRegistry.getRooms()) {
+            size = offerToPage(page, size, room.getRoomNumber(), afterRoomNumber);
+        }
+        List<Integer> roomNumbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            roomNumbers.add(page[i]);
+        }
+        return roomNumbers;
+    }
+
+    // Keeps the page holding the smallest keys above the cursor seen so far, in ascending order,
+    // and returns how many it holds. Once the page is full most keys are rejected by one compare.
+    private static int offerToPage(int[] page, int size, int key, int after) {
+        if (key <= after || page.length == 0 || (size == page.length && key >= page[size - 1])) {
+            return size;
+        }
+        int i = size == page.length ? size - 1 : size;
+        while (i > 0 && page[i - 1] > key) {
+            page[i] = page[i - 1];
+            i--;
+        }
+        page[i] = key;
+        return size == page.length ? size : size + 1;
+    }
+
+    // Room numbers in the order the rooms were created
+    public List<Integer> listRoomNumbers() {
+        List<Integer> roomNumbers = new ArrayList<>();
+        for (Room room : roomRegistry.getRooms()) {
+            roomNumbers.add(room.getRoomNumber());
+        }
+        return roomNumbers;
+    }
+
+    // Null if there is no room with the number
+    public List<Student> listRoomOccupants(int roomNumber) {
+        Room room = roomRegistry.getRoom(roomNumber);
+        if (room == null) {
+            return null;
+        }
+        rosterLock.readLock().lock();
+        try {
+            List<Student> occupants = new ArrayList<>();
+            for (Student student : room.getStudents()) {
+                occupants.add(detach(student));
+            }
+            return occupants;
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    // Number of the student's room, or null if they are not allocated
+    public Integer findRoomNumber(int rollNumber) {
+        Room room = roomRegistry.getRoomOfStudent(rollNumber);
+        return room == null ? null : room.getRoomNumber();
+    }
+
+    // The student with the roll number if the term is numeric, otherwise the closest name matches
+    public List<Student> searchStudents(String searchTerm) {
+        long start = metrics.start(Metric.SEARCH_STUDENTS);
+        try {
+            List<Student> matches = new ArrayList<>();
+            searchTerm = searchTerm.trim();
+            rosterLock.readLock().lock();
+            try {
+                if (searchTerm.matches("\\d{1,9}")) {
+                    Student student = store.get(Integer.parseInt(searchTerm));
+                    if (student != null) {
+                        matches.add(detach(student));
+                    }
+                } else if (!searchTerm.isEmpty()) {
+                    List<Integer> rollNumbers;
+                    synchronized (nameIndexLock) {
+                        rollNumbers = getNameIndex().search(searchTerm, MAX_SEARCH_RESULTS);
+                    }
+                    for (int rollNumber : rollNumbers) {
+                        matches.add(detach(store.get(rollNumber)));
+                    }
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            return matches;
+        } finally {
+            metrics.record(Metric.SEARCH_STUDENTS, start);
+        }
+    }
+
+    public void modifyStudent() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter roll number of the student to modify: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        if (getStudentByRollNumber(rollNumber) == null) {
+            System.out.println("No student found with the given roll number.");
+            return;
+        }
+
+        System.out.println("Enter new name: ");
+        String newName = scanner.nextLine();
+        while (!isValidName(newName)) {
+            System.out.println("Invalid name. Please enter a valid name (alphabetic characters only): ");
+            newName = scanner.nextLine();
+        }
+
+        Department newDepartment = readDepartment(scanner, "Enter new department (AIE, CSE, or CYS): ");
+
+        System.out.println(modifyStudent(rollNumber, newName, newDepartment).getMessage());
+    }
+
+    public OperationResult modifyStudent(int rollNumber, String name, Department department) {
+        long start = metrics.start(Metric.MODIFY_STUDENT);
+        try {
+            if (!isValidName(name)) {
+                return OperationResult.failure("Invalid name. Please enter a valid name (alphabetic characters only).");
+            }
+            if (department == null) {
+                return OperationResult.failure("Invalid department. Please enter a valid department.");
+            }
+
+            long sequence;
+            rosterLock.writeLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+
+                if (student == null) {
+                    return OperationResult.failure("No student found with the given roll number.");
+                }
+
+                updateStudent(student, name, department);
+                sequence = append(JournalRecord.modifyStudent(student));
+            } finally {
+                rosterLock.writeLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student details modified successfully.");
+        } finally {
+            metrics.record(Metric.MODIFY_STUDENT, start);
+        }
+    }
+
+    public void removeStudent() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter roll number of the student to remove: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        System.out.println(removeStudent(rollNumber).getMessage());
+    }
+
+    public OperationResult removeStudent(int rollNumber) {
+        long start = metrics.start(Metric.REMOVE_STUDENT);
+        try {
+            long sequence;
+            rosterLock.writeLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+
+                if (student == null) {
+                    return OperationResult.failure("No student found with the given roll number.");
+                }
+
+                unregisterStudent(student);
+                sequence = append(JournalRecord.removeStudent(rollNumber));
+            } finally {
+                rosterLock.writeLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student removed successfully.");
+        } finally {
+            metrics.record(Metric.REMOVE_STUDENT, start);
+        }
+    }
+
+    public void allocateRoom() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter room number (1-10): ");
+        int roomNumber = 0;
+        try {
+            roomNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid room number format. Please enter a numeric value.");
+            return;
+        }
+
+        Room room = roomRegistry.getRoom(roomNumber);
+
+        if (room != null && room.isFull()) {
+            System.out.println("Room is already full. Cannot add more students.");
+            return;
+        }
+
+        System.out.println("Enter roll number of the student to allocate: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        System.out.println(allocateRoom(roomNumber, rollNumber).getMessage());
+    }
+
+    public OperationResult allocateRoom(int roomNumber, int rollNumber) {
+        long start = metrics.start(Metric.ALLOCATE_ROOM);
+        try {
+            long sequence;
+            rosterLock.readLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+
+                if (student == null) {
+                    return OperationResult.failure("No student found with the given roll number.");
+                }
+
+                Room room = roomRegistry.getOrCreateRoom(roomNumber);
+                ReentrantLock roomLock = roomRegistry.lockFor(roomNumber);
+                roomLock.lock();
+                try {
+                    if (room.isFull()) {
+                        return OperationResult.failure("Room is already full. Cannot add more students.");
+                    }
+
+                    Room currentRoom = roomRegistry.getRoomOfStudent(rollNumber);
+
+                    if (currentRoom == room) {
+                        return OperationResult.failure("Student is already allocated to the room.");
+                    }
+
+                    if (currentRoom != null) {
+                        return OperationResult.failure("Student is already allocated to room " + currentRoom.getRoomNumber() + ". Remove them from that room first.");
+                    }
+
+                    // Another room's allocation may claim the student between the check and allocate
+                    if (!roomRegistry.allocate(room, student)) {
+                        return OperationResult.failure("Student is already allocated to another room. Remove them from that room first.");
+                    }
+
+                    sequence = appendRoomChange(JournalRecord.allocateRoom(room.getRoomNumber(), rollNumber));
+                } finally {
+                    roomLock.unlock();
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student allocated to the room successfully.");
+        } finally {
+            metrics.record(Metric.ALLOCATE_ROOM, start);
+        }
+    }
+
+    public void autoAllocateRoom() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter roll number of the student to allocate: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        Student student = getStudentByRollNumber(rollNumber);
+
+        if (student == null) {
+            System.out.println("No student found with the given roll number.");
+            return;
+        }
+
+        Room currentRoom = roomRegistry.getRoomOfStudent(rollNumber);
+
+        if (currentRoom != null) {
+            System.out.println("Student is already allocated to room " + currentRoom.getRoomNumber() + ".");
+            return;
+        }
+
+        System.out.println("Keep the student with their department? (Y/N): ");
+        String choice = scanner.nextLine();
+
+        System.out.println(autoAllocateRoom(rollNumber, choice.equalsIgnoreCase("Y")).getMessage());
+    }
+
+    public OperationResult autoAllocateRoom(int rollNumber, boolean keepWithDepartment) {
+        long start = metrics.start(Metric.AUTO_ALLOCATE_ROOM);
+        try {
+            long sequence;
+            Room room;
+            rosterLock.readLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+
+                if (student == null) {
+                    return OperationResult.failure("No student found with the given roll number.");
+                }
+
+                Department department = keepWithDepartment ? student.getDepartment() : null;
+
+                // A free room found without its lock is only a candidate; retry with the next one
+                // if another allocation filled it or changed its department first
+                while (true) {
+                    Room currentRoom = roomRegistry.getRoomOfStudent(rollNumber);
+
+                    if (currentRoom != null) {
+                        return OperationResult.failure("Student is already allocated to room " + currentRoom.getRoomNumber() + ".");
+                    }
+
+                    room = department == null ? roomRegistry.findFirstFreeRoom() : roomRegistry.findFirstFreeRoom(department);
+
+                    if (room == null) {
+                        room = roomRegistry.getOrCreateRoom(roomRegistry.nextRoomNumber());
+                    }
+
+                    ReentrantLock roomLock = roomRegistry.lockFor(room.getRoomNumber());
+                    roomLock.lock();
+                    try {
+                        boolean suitable = department == null || room.isEmpty() || room.getDepartment() == department;
+                        if (suitable && roomRegistry.allocate(room, student)) {
+                            sequence = appendRoomChange(JournalRecord.allocateRoom(room.getRoomNumber(), rollNumber));
+                            break;
+                        }
+                    } finally {
+                        roomLock.unlock();
+                    }
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student allocated to room " + room.getRoomNumber() + " successfully.");
+        } finally {
+            metrics.record(Metric.AUTO_ALLOCATE_ROOM, start);
+        }
+    }
+
+    public void setRoomCapacity() {
+        Scanner scanner = new Scanner(System.in);
+        try {
+            System.out.println("Enter room number: ");
+            int roomNumber = scanner.nextInt();
+            System.out.println("Enter number of beds: ");
+            int capacity = scanner.nextInt();
+            scanner.nextLine();
+            System.out.println(setRoomCapacity(roomNumber, capacity).getMessage());
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid number format. Please enter a numeric value.");
+        }
+    }
+
+    // Creates the room if it does not exist yet
+    public OperationResult setRoomCapacity(int roomNumber, int capacity) {
+        if (capacity < 1) {
+            return OperationResult.failure("Invalid capacity. A room needs at least one bed.");
+        }
+
+        long sequence;
+        rosterLock.readLock().lock();
+        try {
+            Room room = roomRegistry.getOrCreateRoom(roomNumber);
+            ReentrantLock roomLock = roomRegistry.lockFor(roomNumber);
+            roomLock.lock();
+            try {
+                if (!roomRegistry.setCapacity(room, capacity)) {
+                    return OperationResult.failure("Room " + roomNumber + " already holds " + room.getStudents().size() + " students.");
+                }
+                sequence = appendRoomChange(JournalRecord.setRoomCapacity(roomNumber, capacity));
+            } finally {
+                roomLock.unlock();
+            }
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+        if (!awaitDurable(sequence)) {
+            return notSaved();
+        }
+        return OperationResult.success("Room " + roomNumber + " now has " + capacity + " beds.");
+    }
+
+    public void autoAllocateAll() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Keep students with their department? (Y/N): ");
+        boolean keepWithDepartment = scanner.nextLine().trim().equalsIgnoreCase("Y");
+        System.out.println("Beds in each new room when existing rooms run out (0 to open none, Enter for " + Room.DEFAULT_CAPACITY + "): ");
+        String beds = scanner.nextLine().trim();
+        int newRoomCapacity = Room.DEFAULT_CAPACITY;
+        if (!beds.isEmpty()) {
+            try {
+                newRoomCapacity = Integer.parseInt(beds);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid number format. Please enter a numeric value.");
+                return;
+            }
+        }
+        System.out.println(autoAllocateAll(keepWithDepartment, newRoomCapacity).getMessage());
+    }
+
+    // Places every unallocated student in one pass, as planned by BatchAllocator. The roster write
+    // lock is held while planning and applying, so no other allocation can take a planned bed.
+    // Departments are applied in parallel, each room under its own lock, since a room where one
+    // department ends and the next begins takes students from both; the whole batch is made
+    // durable once.
+    public OperationResult autoAllocateAll(boolean keepWithDepartment, int newRoomCapacity) {
+        if (newRoomCapacity < 0) {
+            return OperationResult.failure("Invalid capacity. New rooms cannot have a negative number of beds.");
+        }
+
+        long start = metrics.start(Metric.AUTO_ALLOCATE_ALL);
+        try {
+            Department[] departments = Department.values();
+            int[] placed = new int[departments.length];
+            long[] lastRecords = new long[departments.length];
+            BatchAllocator plan;
+            rosterLock.writeLock().lock();
+            try {
+                int[][] unallocated = new int[departments.length][];
+                IntStream.range(0, departments.length).parallel().forEach(d -> {
+                    int[] rollNumbers = new int[store.count(departments[d])];
+                    int count = 0;
+                    for (Student student : store.byDepartment(departments[d])) {
+                        if (roomRegistry.getRoomOfStudent(student.getRollNumber()) == null) {
+                            rollNumbers[count++] = student.getRollNumber();
+                        }
+                    }
+                    unallocated[d] = java.util.Arrays.copyOf(rollNumbers, count);
+                    java.util.Arrays.sort(unallocated[d]);
+                });
+
+                plan = new BatchAllocator(unallocated, roomRegistry.getRooms(), keepWithDepartment, newRoomCapacity, roomRegistry.nextRoomNumber());
+                for (int[] newRoom : plan.getNewRooms()) {
+                    Room room = roomRegistry.getOrCreateRoom(newRoom[0]);
+                    if (newRoom[1] != room.getCapacity()) {
+                        roomRegistry.setCapacity(room, newRoom[1]);
+                        appendRoomChange(JournalRecord.setRoomCapacity(newRoom[0], newRoom[1]));
+                    }
+                }
+
+                // Placements come grouped by room, so each room is filled in one step
+                IntStream.range(0, departments.length).parallel().forEach(d -> {
+                    BatchAllocator.Placements placements = plan.getPlacements(departments[d]);
+                    List<Student> group = new ArrayList<>();
+                    int i = 0;
+                    while (i < placements.size) {
+                        int roomNumber = placements.roomNumbers[i];
+                        group.clear();
+                        for (; i < placements.size && placements.roomNumbers[i] == roomNumber; i++) {
+                            group.add(store.get(placements.rollNumbers[i]));
+                        }
+                        ReentrantLock roomLock = roomRegistry.lockFor(roomNumber);
+                        roomLock.lock();
+                        try {
+                            for (Student student : roomRegistry.allocateAll(roomRegistry.getRoom(roomNumber), group)) {
+                                lastRecords[d] = appendRoomChange(JournalRecord.allocateRoom(roomNumber, student.getRollNumber()));
+                                placed[d]++;
+                            }
+                        } finally {
+                            roomLock.unlock();
+                        }
+                    }
+                });
+            } finally {
+                rosterLock.writeLock().unlock();
+            }
+
+            long lastRecord = 0;
+            int placedCount = 0;
+            for (int d = 0; d < departments.length; d++) {
+                lastRecord = Math.max(lastRecord, lastRecords[d]);
+                placedCount += placed[d];
+            }
+            if (!awaitDurable(lastRecord)) {
+                return notSaved();
+            }
+
+            String message = "Allocated " + placedCount + " students, opening " + plan.getNewRooms().size() + " new rooms.";
+            if (plan.getUnplacedCount() > 0) {
+                message += " " + plan.getUnplacedCount() + " students could not be placed.";
+            }
+            return OperationResult.success(message);
+        } finally {
+            metrics.record(Metric.AUTO_ALLOCATE_ALL, start);
+        }
+    }
+
+    public void removeStudentFromRoom() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter room number (1-10): ");
+        int roomNumber = 0;
+        try {
+            roomNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid room number format. Please enter a numeric value.");
+            return;
+        }
+
+        if (getRoomByNumber(roomNumber) == null) {
+            System.out.println("No room found with the given number.");
+            return;
+        }
+
+        System.out.println("Enter roll number of the student to remove: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        System.out.println(removeStudentFromRoom(roomNumber, rollNumber).getMessage());
+    }
+
+    public OperationResult removeStudentFromRoom(int roomNumber, int rollNumber) {
+        long start = metrics.start(Metric.REMOVE_STUDENT_FROM_ROOM);
+        try {
+            Room room = getRoomByNumber(roomNumber);
+
+            if (room == null) {
+                return OperationResult.failure("No room found with the given number.");
+            }
+
+            long sequence;
+            rosterLock.readLock().lock();
+            try {
+                ReentrantLock roomLock = roomRegistry.lockFor(roomNumber);
+                roomLock.lock();
+                try {
+                    if (roomRegistry.getRoomOfStudent(rollNumber) != room) {
+                        return OperationResult.failure("No student found in the room with the given roll number.");
+                    }
+
+                    roomRegistry.deallocate(rollNumber);
+                    sequence = appendRoomChange(JournalRecord.deallocateRoom(rollNumber));
+                } finally {
+                    roomLock.unlock();
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success("Student removed from the room successfully.");
+        } finally {
+            metrics.record(Metric.REMOVE_STUDENT_FROM_ROOM, start);
+        }
+    }
+
+    public void markAttendance() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter roll number of the student to mark attendance: ");
+        int rollNumber = 0;
+        try {
+            rollNumber = scanner.nextInt();
+            scanner.nextLine();
+        } catch (InputMismatchException e) {
+            System.out.println("Invalid roll number format. Please enter a numeric value.");
+            return;
+        }
+
+        if (getStudentByRollNumber(rollNumber) == null) {
+            System.out.println("No student found with the given roll number.");
+            return;
+        }
+
+        System.out.println("Is the student present? (Y/N): ");
+        String choice = scanner.nextLine();
+
+        if (!choice.equalsIgnoreCase("Y") && !choice.equalsIgnoreCase("N")) {
+            System.out.println("Invalid choice. Attendance not marked.");
+            return;
+        }
+
+        OperationResult result = markAttendance(rollNumber, choice.equalsIgnoreCase("Y"));
+        System.out.println(result.getMessage());
+        if (result.isSuccess()) {
+            System.out.println("Attendance data saved successfully.");
+        }
+    }
+
+    public OperationResult markAttendance(int rollNumber, boolean present) {
+        long start = metrics.start(Metric.MARK_ATTENDANCE);
+        try {
+            long sequence;
+            rosterLock.readLock().lock();
+            try {
+                Student student = store.get(rollNumber);
+
+                if (student == null) {
+                    return OperationResult.failure("No student found with the given roll number.");
+                }
+
+                synchronized (attendanceLock) {
+                    setPresent(student, present);
+                    sequence = append(JournalRecord.markAttendance(rollNumber, present));
+                    recordAttendanceHistory(student);
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+            return OperationResult.success(present ? "Attendance marked as present." : "Attendance marked as absent.");
+        } finally {
+            metrics.record(Metric.MARK_ATTENDANCE, start);
+        }
+    }
+
+    // Roll call over one room: occupants whose roll numbers were scanned are marked present and
+    // the rest absent. Scanned roll numbers may repeat and may name students outside the room.
+    public OperationResult rollCallRoom(int roomNumber, int[] scanned) {
+        Room room = roomRegistry.getRoom(roomNumber);
+        if (room == null) {
+            return OperationResult.failure("No room found with the given number.");
+        }
+        return rollCall(room.getStudents(), scanned);
+    }
+
+    public OperationResult rollCallDepartment(Department department, int[] scanned) {
+        if (department == null) {
+            return OperationResult.failure("Invalid department. Use AIE, CSE or CYS.");
+        }
+        return rollCall(() -> store.byDepartment(department).iterator(), scanned);
+    }
+
+    public OperationResult rollCallAll(int[] scanned) {
+        return rollCall(store, scanned);
+    }
+
+    // The scope is iterated under the roster read lock
+    private OperationResult rollCall(Iterable<Student> scope, int[] scanned) {
+        long start = metrics.start(Metric.ROLL_CALL);
+        try {
+            IntIntMap scannedRollNumbers = new IntIntMap(scanned.length);
+            for (int rollNumber : scanned) {
+                scannedRollNumbers.put(rollNumber, 0);
+            }
+            List<Student> students = new ArrayList<>();
+            boolean[] present;
+            int presentCount = 0;
+            long sequence;
+            rosterLock.readLock().lock();
+            try {
+                for (Student student : scope) {
+                    Student current = store.get(student.getRollNumber());
+                    if (current != null) {
+                        students.add(current);
+                    }
+                }
+                present = new boolean[students.size()];
+                for (int i = 0; i < present.length; i++) {
+                    present[i] = scannedRollNumbers.get(students.get(i).getRollNumber()) >= 0;
+                    if (present[i]) {
+                        presentCount++;
+                    }
+                }
+                sequence = applyAttendance(students, present);
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+
+            String message = "Roll call marked " + presentCount + " present and " + (present.length - presentCount) + " absent.";
+            int outside = scannedRollNumbers.size() - presentCount;
+            return OperationResult.success(outside == 0 ? message : message + " " + outside + " scanned roll numbers were not in the roll call.");
+        } finally {
+            metrics.record(Metric.ROLL_CALL, start);
+        }
+    }
+
+    // Marks whole lists at once; a roll number in both lists ends up absent
+    public OperationResult markAttendance(int[] presentRollNumbers, int[] absentRollNumbers) {
+        long start = metrics.start(Metric.ROLL_CALL);
+        try {
+            List<Student> students = new ArrayList<>(presentRollNumbers.length + absentRollNumbers.length);
+            boolean[] present = new boolean[presentRollNumbers.length + absentRollNumbers.length];
+            int unknown = 0;
+            long sequence;
+            rosterLock.readLock().lock();
+            try {
+                for (int i = 0; i < present.length; i++) {
+                    boolean isPresent = i < presentRollNumbers.length;
+                    Student student = store.get(isPresent ? presentRollNumbers[i] : absentRollNumbers[i - presentRollNumbers.length]);
+                    if (student == null) {
+                        unknown++;
+                        continue;
+                    }
+                    present[students.size()] = isPresent;
+                    students.add(student);
+                }
+                sequence = applyAttendance(students, present);
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            if (!awaitDurable(sequence)) {
+                return notSaved();
+            }
+
+            String message = "Attendance marked for " + students.size() + " students.";
+            return unknown == 0 ? OperationResult.success(message)
+                    : OperationResult.success(message + " " + unknown + " roll numbers did not match a student.");
+        } finally {
+            metrics.record(Metric.ROLL_CALL, start);
+        }
+    }
+
+    // Applies a batch of marks under one hold of the attendance lock. The journal records go in as
+    // one run, so they are written and fsynced together.
+    // Only marks that change a status are journaled; every one is recorded in the history.
+    // Callers hold the roster read lock and pass the returned sequence to awaitDurable.
+    private long applyAttendance(List<Student> students, boolean[] present) {
+        List<JournalRecord> records = new ArrayList<>();
+        synchronized (attendanceLock) {
+            for (int i = 0; i < students.size(); i++) {
+                Student student = students.get(i);
+                if (student.isPresent() != present[i]) {
+                    setPresent(student, present[i]);
+                    records.add(JournalRecord.markAttendance(student.getRollNumber(), present[i]));
+                }
+                recordAttendanceHistory(student);
+            }
+            return appendAll(records);
+        }
+    }
+
+    public void rollCall() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Roll call for a (R)oom, a (D)epartment or (A)ll students: ");
+        String scope = scanner.nextLine().trim().toUpperCase();
+        int roomNumber = 0;
+        Department department = null;
+        if (scope.equals("R")) {
+            System.out.println("Enter room number: ");
+            try {
+                roomNumber = Integer.parseInt(scanner.nextLine().trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid room number format. Please enter a numeric value.");
+                return;
+            }
+        } else if (scope.equals("D")) {
+            department = readDepartment(scanner, "Enter department (AIE, CSE, or CYS): ");
+        } else if (!scope.equals("A")) {
+            System.out.println("Invalid choice. Roll call not taken.");
+            return;
+        }
+
+        // Scanners type a roll number and Enter each; several per line also work
+        System.out.println("Scan or enter the roll numbers of present students, then a blank line to finish: ");
+        int[] scanned = new int[64];
+        int count = 0;
+        while (scanner.hasNextLine()) {
+            String line = scanner.nextLine().trim();
+            if (line.isEmpty()) {
+                break;
+            }
+            for (String token : line.split("[\\s,]+")) {
+                try {
+                    int rollNumber = Integer.parseInt(token);
+                    if (count == scanned.length) {
+                        scanned = java.util.Arrays.copyOf(scanned, count * 2);
+                    }
+                    scanned[count++] = rollNumber;
+                } catch (NumberFormatException e) {
+                    System.out.println("Skipped invalid roll number " + token + ".");
+                }
+            }
+        }
+        scanned = java.util.Arrays.copyOf(scanned, count);
+
+        OperationResult result;
+        if (scope.equals("R")) {
+            result = rollCallRoom(roomNumber, scanned);
+        } else if (scope.equals("D")) {
+            result = rollCallDepartment(department, scanned);
+        } else {
+            result = rollCallAll(scanned);
+        }
+        System.out.println(result.getMessage());
+    }
+
+    private void recordAttendanceHistory(Student student) {
+        if (attendanceHistory == null) {
+            return;
+        }
+        try {
+            attendanceHistory.record(student.getRollNumber(), student.isPresent());
+        } catch (IOException e) {
+            System.out.println("Error occurred while saving attendance history.");
+        }
+    }
+
+    public void displayAttendanceHistory() {
+        if (attendanceHistory == null) {
+            System.out.println("Attendance history is not available.");
+            return;
+        }
+
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("1. Students absent on a date");
+        System.out.println("2. Students absent on consecutive days");
+        System.out.println("3. Attendance percentage for a month");
+        System.out.println("Enter your choice: ");
+        String choice = scanner.nextLine();
+
+        try {
+            switch (choice) {
+                case "1": {
+                    System.out.println("Enter date (YYYY-MM-DD): ");
+                    LocalDate date = LocalDate.parse(scanner.nextLine().trim());
+                    long[] absent;
+                    synchronized (attendanceLock) {
+                        absent = attendanceHistory.getAbsent(date);
+                    }
+                    if (absent == null) {
+                        System.out.println("No attendance was marked on " + date + ".");
+                    } else {
+                        System.out.println("Students absent on " + date + ":");
+                        displayHistoryStudents(absent);
+                    }
+                    break;
+                }
+                case "2": {
+                    System.out.println("Enter number of consecutive days: ");
+                    int days = Integer.parseInt(scanner.nextLine().trim());
+                    if (days < 1) {
+                        System.out.println("Number of days must be at least 1.");
+                        return;
+                    }
+                    long[] absent;
+                    synchronized (attendanceLock) {
+                        absent = attendanceHistory.findConsecutiveAbsences(days);
+                    }
+                    System.out.println("Students absent on " + days + " or more consecutive roll calls:");
+                    displayHistoryStudents(absent);
+                    break;
+                }
+                case "3": {
+                    System.out.println("Enter month (YYYY-MM): ");
+                    YearMonth month = YearMonth.parse(scanner.nextLine().trim());
+                    System.out.println("Enter roll number, or press Enter for all students: ");
+                    String rollNumberString = scanner.nextLine().trim();
+                    long present;
+                    long marked;
+                    synchronized (attendanceLock) {
+                        if (rollNumberString.isEmpty()) {
+                            long[] counts = attendanceHistory.countMonth(month);
+                            present = counts[0];
+                            marked = counts[1];
+                        } else {
+                            int[] counts = attendanceHistory.countMonth(month, Integer.parseInt(rollNumberString));
+                            present = counts[0];
+                            marked = counts[1];
+                        }
+                    }
+                    if (marked == 0) {
+                        System.out.println("No attendance was marked in " + month + ".");
+                    } else {
+                        System.out.printf("Attendance in %s: %.1f%% (%d of %d marks present)%n", month, present * 100.0 / marked, present, marked);
+                    }
+                    break;
+                }
+                default:
+                    System.out.println("Invalid choice.");
+            }
+        } catch (DateTimeParseException e) {
+            System.out.println("Invalid date format.");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number format. Please enter a numeric value.");
+        }
+    }
+
+    private void displayHistoryStudents(long[] bitmap) {
+        System.out.println("+------------+----------------------+");
+        System.out.println("| Roll Number |        Name          |");
+        System.out.println("+------------+----------------------+");
+        rosterLock.readLock().lock();
+        try {
+            for (int word = 0; word < bitmap.length; word++) {
+                long bits = bitmap[word];
+                while (bits != 0) {
+                    int ordinal = word * 64 + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int rollNumber;
+                    synchronized (attendanceLock) {
+                        rollNumber = attendanceHistory.getRollNumber(ordinal);
+                    }
+                    Student student = store.get(rollNumber);
+                    System.out.printf("| %-11d | %-20s |%n", rollNumber, student == null ? "(removed)" : student.getName());
+                }
+            }
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+        System.out.println("+------------+----------------------+");
+    }
+
+    // Writes the full attendance snapshot. Marks are kept by the journal, whose snapshots carry
+    // every student's status, so the text file only seeds a journal on the first run and is not
+    // written as attendance is marked.
+    public void saveAttendanceData() {
+        long start = metrics.start(Metric.SAVE_ATTENDANCE_DATA);
+        try {
+            File temporary = dataFile(ATTENDANCE_FILE + ".tmp");
+            rosterLock.readLock().lock();
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(temporary))) {
+                for (Student student : store) {
+                    String data = student.getRollNumber() + "," + (student.isPresent() ? "P" : "A");
+                    writer.write(data);
+                    writer.newLine();
+                }
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving attendance data.");
+                return;
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            metrics.addBytesWritten(temporary.length());
+
+            try {
+                Files.move(temporary.toPath(), dataFile(ATTENDANCE_FILE).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.out.println("Error occurred while saving attendance data.");
+            }
+        } finally {
+            metrics.record(Metric.SAVE_ATTENDANCE_DATA, start);
+        }
+    }
+
+    public void loadAttendanceData() {
+        loadAttendanceData(dataFile(ATTENDANCE_FILE));
+    }
+
+    public void loadAttendanceData(File attendanceFile) {
+        long start = metrics.start(Metric.LOAD_ATTENDANCE_DATA);
+        try {
+            try {
+                if (attendanceFile.exists()) {
+                    metrics.addBytesRead(attendanceFile.length());
+                    readAttendanceFile(attendanceFile);
+                }
+                System.out.println("Attendance data loaded successfully.");
+            } catch (IOException e) {
+                System.out.println("Error occurred while loading attendance data.");
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid roll number format in the attendance data file.");
+            }
+        } finally {
+            metrics.record(Metric.LOAD_ATTENDANCE_DATA, start);
+        }
+    }
+
+    private void readAttendanceFile(File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] data = line.split(",");
+                if (data.length == 2) {
+                    int rollNumber = Integer.parseInt(data[0]);
+                    boolean present = data[1].equalsIgnoreCase("P");
+                    Student student = getStudentByRollNumber(rollNumber);
+                    if (student != null) {
+                        setPresent(student, present);
+                    }
+                }
+            }
+        }
+    }
+
+    public Room getRoomByNumber(int roomNumber) {
+        long start = metrics.start(Metric.GET_ROOM);
+        try {
+            return roomRegistry.getRoom(roomNumber);
+        } finally {
+            metrics.record(Metric.GET_ROOM, start);
+        }
+    }
+
+    public Student getStudentByRollNumber(int rollNumber) {
+        long start = metrics.start(Metric.GET_STUDENT);
+        try {
+            rosterLock.readLock().lock();
+            try {
+                return store.get(rollNumber);
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+        } finally {
+            metrics.record(Metric.GET_STUDENT, start);
+        }
+    }
+
+    public int getStudentCount(Department department) {
+        rosterLock.readLock().lock();
+        try {
+            return store.count(department);
+        } finally {
+            rosterLock.readLock().unlock();
+        }
+    }
+
+    public void displayStudentsByDepartment() {
+        long start = metrics.start(Metric.DISPLAY_BY_DEPARTMENT);
+        try {
+            StringBuilder builder = new StringBuilder(4096);
+            builder.append("Students by Department:\n");
+            builder.append("-----------------------\n");
+
+            rosterLock.readLock().lock();
+            try {
+                // Only departments changed since their last display are rendered again
+                for (Department department : Department.values()) {
+                    builder.append(views.department(department, this::appendDepartment));
+                }
+            } finally {
+                rosterLock.readLock().unlock();
+            }
+            System.out.print(builder);
+        } finally {
+            metrics.record(Metric.DISPLAY_BY_DEPARTMENT, start);
+        }
+    }
+
+    private void appendDepartment(StringBuilder builder, Department department) {
+        builder.append("Department: ").append(department).append(" (").append(store.count(department)).append(" students)\n");
+        builder.append("+----------------------+------------+----------------------+----------+\n");
+        builder.append("| Name                 | Roll Number | Department           | Present  |\n");
+        builder.append("+----------------------+------------+----------------------+----------+\n");
+
+        // Only the students of the current department are visited
+        for (Student student : store.byDepartment(department)) {
+            student.appendRow(builder).append('\n');
+        }
+
+        builder.append("+----------------------+------------+----------------------+----------+\n");
+        builder.append('\n');
+    }
+
+    public void deleteAllData() {
+        rosterLock.writeLock().lock();
+        try {
+            // Delete student data
+            closeStudentData();
+            BufferedWriter studentWriter = new BufferedWriter(new FileWriter(dataFile(STUDENT_DATA_FILE)));
+            studentWriter.write("");
+            studentWriter.close();
+            store.clear();
+            nameIndex = null;
+            rollNumberOrder = null;
+            roomRegistry.clear();
+            aggregates.clearStudents();
+            views.clear();
+            compact();
+
+            // Delete attendance data, history included, so a roll number added again starts afresh
+            synchronized (attendanceLock) {
+                BufferedWriter attendanceWriter = new BufferedWriter(new FileWriter(dataFile(ATTENDANCE_FILE)));
+                attendanceWriter.write("");
+                attendanceWriter.close();
+                if (attendanceHistory != null) {
+                    attendanceHistory.clear();
+                }
+            }
+
+            System.out.println("All data deleted successfully.");
+        } catch (IOException e) {
+            System.out.println("Error occurred while deleting data.");
+        } finally {
+            rosterLock.writeLock().unlock();
+        }
+    }
+}
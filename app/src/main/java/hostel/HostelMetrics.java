@@ -0,0 +1,208 @@
+package hostel;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+// Latency histograms and I/O byte counts of one management system. Published over JMX as
+// hostel:type=Metrics,directory=<data directory> with read-only attributes such as
+// addStudent.count and journalFsync.p99Micros, plus a reset operation.
+class HostelMetrics implements DynamicMBean {
+    private static final String[] STATISTICS = {"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"};
+    private static final int SAMPLE_INTERVAL = 16;
+    private static final long UNTIMED = Long.MIN_VALUE;
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[Metric.values().length];
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private ObjectName objectName;
+
+    public HostelMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    // Start of a timed call, to be passed to record. For sampled metrics most calls are not timed.
+    public long start(Metric metric) {
+        if (metric.isSampled() && ThreadLocalRandom.current().nextInt(SAMPLE_INTERVAL) != 0) {
+            return UNTIMED;
+        }
+        return System.nanoTime();
+    }
+
+    public void record(Metric metric, long start) {
+        if (start == UNTIMED) {
+            histograms[metric.ordinal()].recordUntimed();
+        } else {
+            histograms[metric.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    public LatencyHistogram getHistogram(Metric metric) {
+        return histograms[metric.ordinal()];
+    }
+
+    public void addBytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        bytesRead.reset();
+        bytesWritten.reset();
+    }
+
+    // Table of every metric that has recorded something, followed by the byte counts
+    public String summary() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%-28s %10s %12s %12s %12s %12s%n", "Operation", "Count", "Mean us", "p50 us", "p99 us", "Max us"));
+        for (Metric metric : Metric.values()) {
+            LatencyHistogram histogram = getHistogram(metric);
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            builder.append(String.format("%-28s %10d %12.1f %12.1f %12.1f %12.1f%n", metric.getLabel(), histogram.getCount(),
+                    histogram.getMeanNanos() / 1e3, histogram.getPercentileNanos(50) / 1e3,
+                    histogram.getPercentileNanos(99) / 1e3, histogram.getMaxNanos() / 1e3));
+        }
+        builder.append("Bytes read: ").append(getBytesRead()).append(", bytes written: ").append(getBytesWritten());
+        return builder.toString();
+    }
+
+    public void register(File directory) {
+        try {
+            ObjectName name = new ObjectName("hostel:type=Metrics,directory=" + ObjectName.quote(directory.getCanonicalPath()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (JMException | IOException e) {
+            // Another system over the same directory already publishes its metrics
+        }
+    }
+
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Already gone
+        }
+        objectName = null;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        switch (attribute) {
+            case "BytesRead":
+                return getBytesRead();
+            case "BytesWritten":
+                return getBytesWritten();
+            case "Summary":
+                return summary();
+            default:
+                break;
+        }
+        int separator = attribute.lastIndexOf('.');
+        if (separator > 0) {
+            for (Metric metric : Metric.values()) {
+                if (metric.getLabel().equals(attribute.substring(0, separator))) {
+                    LatencyHistogram histogram = getHistogram(metric);
+                    switch (attribute.substring(separator + 1)) {
+                        case "count":
+                            return histogram.getCount();
+                        case "meanMicros":
+                            return histogram.getMeanNanos() / 1e3;
+                        case "p50Micros":
+                            return histogram.getPercentileNanos(50) / 1e3;
+                        case "p99Micros":
+                            return histogram.getPercentileNanos(99) / 1e3;
+                        case "maxMicros":
+                            return histogram.getMaxNanos() / 1e3;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+        throw new AttributeNotFoundException("No attribute " + attribute + ".");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // Left out, as the interface allows
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Attribute " + attribute.getName() + " is read-only.");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (actionName.equals("reset") && (params == null || params.length == 0)) {
+            reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        attributes.add(new MBeanAttributeInfo("BytesRead", "long", "Bytes read from data files", true, false, false));
+        attributes.add(new MBeanAttributeInfo("BytesWritten", "long", "Bytes written to data files", true, false, false));
+        attributes.add(new MBeanAttributeInfo("Summary", "java.lang.String", "Every metric as a table", true, false, false));
+        for (Metric metric : Metric.values()) {
+            for (String statistic : STATISTICS) {
+                String type = statistic.equals("count") ? "long" : "double";
+                attributes.add(new MBeanAttributeInfo(metric.getLabel() + "." + statistic, type, statistic + " of " + metric.getLabel(), true, false, false));
+            }
+        }
+        MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Clears every histogram and counter", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(getClass().getName(), "Hostel management latency and I/O metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[] {reset}, null);
+    }
+}
@@ -0,0 +1,326 @@
+package hostel;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Embedded HTTP server exposing the service API as JSON:
+//   GET    /students[?search=term | ?after=roll&limit=n]
+//   POST   /students {name, rollNumber, department}
+//   GET    /students/{roll}                 PUT  /students/{roll} {name, department}
+//   DELETE /students/{roll}
+//   GET    /rooms                           GET  /rooms/{number}
+//   POST   /rooms/{number}/students {rollNumber}
+//   DELETE /rooms/{number}/students/{roll}
+//   PUT    /rooms/{number} {capacity}
+//   POST   /rooms/auto {rollNumber, keepWithDepartment}
+//   POST   /rooms/auto-all {keepWithDepartment, newRoomCapacity}
+//   POST   /attendance {rollNumber, present}
+//   GET    /departments                     GET  /departments/{department}
+//   GET    /occupancy                       GET  /occupancy/{room number}
+// Each request runs on its own virtual thread where the JDK has them, otherwise on a cached
+// pool of platform threads. Failed operations answer 409 with the same JSON body as successes,
+// or 500 when the change could not be saved.
+class HostelServer {
+    private final HostelManagementSystem managementSystem;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public HostelServer(HostelManagementSystem managementSystem, int port) throws IOException {
+        this.managementSystem = managementSystem;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor is looked up reflectively so the server still
+    // runs, on platform threads, on JDKs that predate virtual threads
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "http-request");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        String body;
+        try {
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+            Response response = route(exchange.getRequestMethod(), path, exchange);
+            if (response == null) {
+                status = 404;
+                body = error("Not found.");
+            } else {
+                status = response.status;
+                body = response.body;
+            }
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            body = error(e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = error("Error occurred while handling the request.");
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+
+    // Returns the response, or null if nothing matches the method and path
+    private Response route(String method, String[] path, HttpExchange exchange) throws IOException {
+        switch (path[0]) {
+            case "students":
+                if (path.length == 1 && method.equals("GET")) {
+                    String search = queryParameter(exchange, "search");
+                    if (search != null) {
+                        return ok(students(managementSystem.searchStudents(search)));
+                    }
+                    String after = queryParameter(exchange, "after");
+                    String limit = queryParameter(exchange, "limit");
+                    if (after == null && limit == null) {
+                        return ok(students(managementSystem.listStudents()));
+                    }
+                    return ok(students(managementSystem.listStudentsAfter(after == null ? -1 : parseInt(after), limit == null ? 100 : parseInt(limit))));
+                }
+                if (path.length == 1 && method.equals("POST")) {
+                    Map<String, String> request = readBody(exchange);
+                    return result(managementSystem.addStudent(request.get("name"), intValue(request, "rollNumber"), department(request)));
+                }
+                if (path.length == 2) {
+                    int rollNumber = parseInt(path[1]);
+                    switch (method) {
+                        case "GET": {
+                            Student student = managementSystem.findStudent(rollNumber);
+                            return ok(student == null ? null : Json.student(student, managementSystem.findRoomNumber(rollNumber)));
+                        }
+                        case "PUT": {
+                            Map<String, String> request = readBody(exchange);
+                            return result(managementSystem.modifyStudent(rollNumber, request.get("name"), department(request)));
+                        }
+                        case "DELETE":
+                            return result(managementSystem.removeStudent(rollNumber));
+                        default:
+                            return null;
+                    }
+                }
+                return null;
+            case "rooms":
+                if (path.length == 1 && method.equals("GET")) {
+                    StringBuilder builder = new StringBuilder("[");
+                    for (int roomNumber : managementSystem.listRoomNumbers()) {
+                        List<Student> occupants = managementSystem.listRoomOccupants(roomNumber);
+                        if (builder.length() > 1) {
+                            builder.append(',');
+                        }
+                        builder.append(room(roomNumber, occupants));
+                    }
+                    return ok(builder.append(']').toString());
+                }
+                if (path.length == 2 && path[1].equals("auto-all") && method.equals("POST")) {
+                    Map<String, String> request = readBody(exchange);
+                    String newRoomCapacity = request.get("newRoomCapacity");
+                    return result(managementSystem.autoAllocateAll("true".equals(request.get("keepWithDepartment")),
+                            newRoomCapacity == null ? Room.DEFAULT_CAPACITY : parseInt(newRoomCapacity)));
+                }
+                if (path.length == 2 && method.equals("PUT")) {
+                    return result(managementSystem.setRoomCapacity(parseInt(path[1]), intValue(readBody(exchange), "capacity")));
+                }
+                if (path.length == 2 && path[1].equals("auto") && method.equals("POST")) {
+                    Map<String, String> request = readBody(exchange);
+                    return result(managementSystem.autoAllocateRoom(intValue(request, "rollNumber"), "true".equals(request.get("keepWithDepartment"))));
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    int roomNumber = parseInt(path[1]);
+                    List<Student> occupants = managementSystem.listRoomOccupants(roomNumber);
+                    return ok(occupants == null ? null : room(roomNumber, occupants));
+                }
+                if (path.length == 3 && path[2].equals("students") && method.equals("POST")) {
+                    Map<String, String> request = readBody(exchange);
+                    return result(managementSystem.allocateRoom(parseInt(path[1]), intValue(request, "rollNumber")));
+                }
+                if (path.length == 4 && path[2].equals("students") && method.equals("DELETE")) {
+                    return result(managementSystem.removeStudentFromRoom(parseInt(path[1]), parseInt(path[3])));
+                }
+                return null;
+            case "attendance":
+                if (path.length == 1 && method.equals("POST")) {
+                    Map<String, String> request = readBody(exchange);
+                    String present = request.get("present");
+                    if (!"true".equals(present) && !"false".equals(present)) {
+                        throw new IllegalArgumentException("present must be true or false.");
+                    }
+                    return result(managementSystem.markAttendance(intValue(request, "rollNumber"), present.equals("true")));
+                }
+                return null;
+            case "occupancy":
+                if (path.length == 1 && method.equals("GET")) {
+                    HostelAggregates aggregates = managementSystem.getAggregates();
+                    StringBuilder builder = new StringBuilder("{\"departments\":{");
+                    for (Department department : Department.values()) {
+                        if (department.ordinal() > 0) {
+                            builder.append(',');
+                        }
+                        builder.append(Json.quote(department.name())).append(':').append(counts(aggregates.getCounts(department)));
+                    }
+                    builder.append("},\"total\":").append(counts(aggregates.getTotalCounts()));
+                    builder.append(",\"rooms\":").append(aggregates.getRoomCount())
+                            .append(",\"fullRooms\":").append(aggregates.getFullRoomCount())
+                            .append(",\"emptyRooms\":").append(aggregates.getEmptyRoomCount())
+                            .append(",\"beds\":").append(aggregates.getBedCount())
+                            .append(",\"freeBeds\":").append(aggregates.getFreeBedCount()).append('}');
+                    return ok(builder.toString());
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    HostelAggregates.Counts counts = managementSystem.getRoomCounts(parseInt(path[1]));
+                    return ok(counts == null ? null : counts(counts));
+                }
+                return null;
+            case "departments":
+                if (path.length == 1 && method.equals("GET")) {
+                    StringBuilder builder = new StringBuilder("{");
+                    for (Department department : Department.values()) {
+                        if (builder.length() > 1) {
+                            builder.append(',');
+                        }
+                        builder.append(Json.quote(department.name())).append(':').append(managementSystem.getStudentCount(department));
+                    }
+                    return ok(builder.append('}').toString());
+                }
+                if (path.length == 2 && method.equals("GET")) {
+                    Department department = Department.parse(path[1]);
+                    return ok(department == null ? null : students(managementSystem.listStudents(department)));
+                }
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    // Null, for a 404, if there is no body
+    private static Response ok(String body) {
+        return body == null ? null : new Response(200, body);
+    }
+
+    // A failed operation conflicts with the current state of the hostel
+    private static Response result(OperationResult result) {
+        return new Response(result.isSuccess() ? 200 : result.isError() ? 500 : 409, Json.result(result));
+    }
+
+    private static String counts(HostelAggregates.Counts counts) {
+        return "{\"students\":" + counts.getStudents() + ",\"present\":" + counts.getPresent() + ",\"allocated\":" + counts.getAllocated() + "}";
+    }
+
+    private String students(List<Student> students) {
+        StringBuilder builder = new StringBuilder("[");
+        for (Student student : students) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(Json.student(student, managementSystem.findRoomNumber(student.getRollNumber())));
+        }
+        return builder.append(']').toString();
+    }
+
+    private String room(int roomNumber, List<Student> occupants) {
+        Room room = managementSystem.getRoomByNumber(roomNumber);
+        StringBuilder builder = new StringBuilder("{\"roomNumber\":").append(roomNumber)
+                .append(",\"capacity\":").append(room == null ? Room.DEFAULT_CAPACITY : room.getCapacity())
+                .append(",\"students\":[");
+        for (int i = 0; i < occupants.size(); i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(Json.student(occupants.get(i), roomNumber));
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static String error(String message) {
+        return "{\"success\":false,\"message\":" + Json.quote(message) + "}";
+    }
+
+    private static Map<String, String> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream input = exchange.getRequestBody()) {
+            return Json.parseObject(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static int intValue(Map<String, String> request, String key) {
+        String value = request.get(key);
+        if (value == null) {
+            throw new IllegalArgumentException(key + " is required.");
+        }
+        return parseInt(value);
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number " + value + ".");
+        }
+    }
+
+    private static Department department(Map<String, String> request) {
+        Department department = Department.parse(request.get("department"));
+        if (department == null) {
+            throw new IllegalArgumentException("Invalid department. Please enter a valid department.");
+        }
+        return department;
+    }
+}
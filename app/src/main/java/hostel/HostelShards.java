@@ -0,0 +1,271 @@
+package hostel;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Several hostels, each a shard with its own directory, data files and in-memory state. The
+// shards are opened in parallel, so startup takes as long as the largest one, and searches,
+// department listings and free-bed counts fan out to every shard and are merged.
+class HostelShards {
+    private final String[] names;
+    private final HostelManagementSystem[] shards;
+    private final ExecutorService executor;
+    private static final int MAX_SEARCH_RESULTS = 10;
+
+    private HostelShards(String[] names, HostelManagementSystem[] shards, ExecutorService executor) {
+        this.names = names;
+        this.shards = shards;
+        this.executor = executor;
+    }
+
+    // A student found in one of the hostels
+    static final class Match {
+        private final String hostel;
+        private final Student student;
+
+        Match(String hostel, Student student) {
+            this.hostel = hostel;
+            this.student = student;
+        }
+
+        public String getHostel() {
+            return hostel;
+        }
+
+        public Student getStudent() {
+            return student;
+        }
+    }
+
+    // Opens every hostel in its directory, one thread per hostel, in the iteration order of the map
+    public static HostelShards open(Map<String, File> directories) throws IOException {
+        String[] names = directories.keySet().toArray(new String[0]);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(names.length, 1), runnable -> {
+            Thread thread = new Thread(runnable, "hostel-shard");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<HostelManagementSystem>> opening = new ArrayList<>(names.length);
+        for (String name : names) {
+            File directory = directories.get(name);
+            opening.add(executor.submit(() -> {
+                Files.createDirectories(directory.toPath());
+                return new HostelManagementSystem(directory);
+            }));
+        }
+        HostelManagementSystem[] shards = new HostelManagementSystem[names.length];
+        IOException failure = null;
+        for (int i = 0; i < names.length; i++) {
+            try {
+                shards[i] = opening.get(i).get();
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new IOException("Could not open hostel " + names[i], e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new InterruptedIOException("Interrupted while opening hostel " + names[i]);
+                }
+            }
+        }
+        HostelShards opened = new HostelShards(names, shards, executor);
+        if (failure != null) {
+            opened.close();
+            throw failure;
+        }
+        return opened;
+    }
+
+    public List<String> getNames() {
+        return Collections.unmodifiableList(java.util.Arrays.asList(names));
+    }
+
+    // Null if there is no hostel with the name
+    public HostelManagementSystem get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return shards[i];
+            }
+        }
+        return null;
+    }
+
+    // Runs the query on every shard at once and returns the results in shard order
+    private <T> List<T> fanOut(Function<HostelManagementSystem, T> query) {
+        List<T> results = new ArrayList<>(shards.length);
+        if (shards.length == 1) {
+            results.add(query.apply(shards[0]));
+            return results;
+        }
+        List<Future<T>> pending = new ArrayList<>(shards.length);
+        for (HostelManagementSystem shard : shards) {
+            pending.add(executor.submit(() -> query.apply(shard)));
+        }
+        try {
+            for (Future<T> result : pending) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying the hostels", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error occurred while querying the hostels", e.getCause());
+        }
+        return results;
+    }
+
+    // The student with the roll number if the term is numeric, otherwise the closest name
+    // matches of every hostel. Shards rank their own matches, so the merged list takes the best
+    // match of each hostel first, then the second best, and so on.
+    public List<Match> searchStudents(String searchTerm, int limit) {
+        List<List<Student>> found = fanOut(shard -> shard.searchStudents(searchTerm));
+        List<Match> matches = new ArrayList<>();
+        for (int rank = 0; matches.size() < limit; rank++) {
+            boolean more = false;
+            for (int i = 0; i < shards.length && matches.size() < limit; i++) {
+                if (rank < found.get(i).size()) {
+                    matches.add(new Match(names[i], found.get(i).get(rank)));
+                    more = true;
+                }
+            }
+            if (!more) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    // Null if no hostel has a student with the roll number
+    public Match findStudent(int rollNumber) {
+        List<Student> found = fanOut(shard -> shard.findStudent(rollNumber));
+        for (int i = 0; i < shards.length; i++) {
+            if (found.get(i) != null) {
+                return new Match(names[i], found.get(i));
+            }
+        }
+        return null;
+    }
+
+    // The department's students of every hostel, in roll number order
+    public List<Match> listStudents(Department department) {
+        List<List<Student>> found = fanOut(shard -> shard.listStudents(department));
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            for (Student student : found.get(i)) {
+                matches.add(new Match(names[i], student));
+            }
+        }
+        matches.sort(Comparator.comparingInt(match -> match.getStudent().getRollNumber()));
+        return matches;
+    }
+
+    // Free beds of each hostel, in shard order
+    public Map<String, Long> getFreeBedCounts() {
+        List<Long> counts = fanOut(shard -> shard.getAggregates().getFreeBedCount());
+        Map<String, Long> freeBeds = new LinkedHashMap<>();
+        for (int i = 0; i < shards.length; i++) {
+            freeBeds.put(names[i], counts.get(i));
+        }
+        return freeBeds;
+    }
+
+    // The hostel with the most free beds, or null if every hostel is full
+    public String findHostelWithFreeBed() {
+        String best = null;
+        long bestCount = 0;
+        for (Map.Entry<String, Long> entry : getFreeBedCounts().entrySet()) {
+            if (entry.getValue() > bestCount) {
+                best = entry.getKey();
+                bestCount = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    public HostelAggregates.Counts getTotalCounts() {
+        HostelAggregates.Counts total = new HostelAggregates.Counts();
+        for (HostelAggregates.Counts counts : fanOut(shard -> shard.getAggregates().getTotalCounts())) {
+            total.merge(counts);
+        }
+        return total;
+    }
+
+    public void searchStudent() {
+        Scanner scanner = new Scanner(System.in);
+        System.out.println("Enter student name or roll number to search in every hostel: ");
+        List<Match> matches = searchStudents(scanner.nextLine(), MAX_SEARCH_RESULTS);
+        if (matches.isEmpty()) {
+            System.out.println("No student found with the given search term.");
+            return;
+        }
+        printMatches("Students Found:", matches);
+    }
+
+    public void displayStudentsByDepartment() {
+        for (Department department : Department.values()) {
+            List<Match> matches = listStudents(department);
+            printMatches("Department: " + department + " (" + matches.size() + " students)", matches);
+            System.out.println();
+        }
+    }
+
+    public void displayFreeBeds() {
+        long total = 0;
+        for (Map.Entry<String, Long> entry : getFreeBedCounts().entrySet()) {
+            System.out.printf("%-20s %d free beds%n", entry.getKey(), entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.printf("%-20s %d free beds%n", "All", total);
+        System.out.println("Students: " + getTotalCounts());
+    }
+
+    private static void printMatches(String title, List<Match> matches) {
+        StringBuilder builder = new StringBuilder(4096);
+        builder.append(title).append('\n');
+        builder.append("+----------------------+----------------------+------------+----------------------+----------+\n");
+        builder.append("| Hostel               | Name                 | Roll Number | Department           | Present  |\n");
+        builder.append("+----------------------+----------------------+------------+----------------------+----------+\n");
+        for (Match match : matches) {
+            builder.append("| ");
+            int start = builder.length();
+            Student.padTo(builder.append(match.getHostel()), start, 20).append(' ');
+            match.getStudent().appendRow(builder).append('\n');
+        }
+        builder.append("+----------------------+----------------------+------------+----------------------+----------+\n");
+        System.out.print(builder);
+    }
+
+    // Closes every hostel at once
+    public void close() {
+        List<Future<?>> closing = new ArrayList<>(shards.length);
+        for (HostelManagementSystem shard : shards) {
+            if (shard != null) {
+                closing.add(executor.submit(shard::close));
+            }
+        }
+        for (Future<?> pending : closing) {
+            try {
+                pending.get();
+            } catch (ExecutionException e) {
+                System.out.println("Error occurred while closing a hostel.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        executor.shutdown();
+    }
+}
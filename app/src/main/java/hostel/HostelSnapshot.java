@@ -0,0 +1,136 @@
+package hostel;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+// Point-in-time copy of the hostel state, captured on the caller's thread and written later.
+// Names are captured by reference to where their bytes live (previous snapshot or columnar name
+// arena) and copied byte for byte when written, so compaction does not decode every name.
+class HostelSnapshot {
+    private final int[] rollNumbers;
+    private final Object[] nameSources;
+    private final int[] nameSourcePositions;
+    private final int[] nameSourceLengths;
+    private final Department[] departments;
+    private final long[] present;
+    private final int[] roomNumbers;
+    private final int[] roomCapacities;
+    private final int[] memberOffsets;
+    private final int[] memberRollNumbers;
+
+    private HostelSnapshot(int studentCount, int roomCount, int memberCount) {
+        rollNumbers = new int[studentCount];
+        nameSources = new Object[studentCount];
+        nameSourcePositions = new int[studentCount];
+        nameSourceLengths = new int[studentCount];
+        departments = new Department[studentCount];
+        present = new long[(studentCount + 63) >>> 6];
+        roomNumbers = new int[roomCount];
+        roomCapacities = new int[roomCount];
+        memberOffsets = new int[roomCount + 1];
+        memberRollNumbers = new int[memberCount];
+    }
+
+    // Rooms must not change while the state is captured
+    public static HostelSnapshot capture(StudentStore students, Collection<Room> rooms) {
+        int roomCount = 0;
+        int memberCount = 0;
+        for (Room room : rooms) {
+            roomCount++;
+            memberCount += room.getStudents().size();
+        }
+
+        HostelSnapshot snapshot = new HostelSnapshot(students.size(), roomCount, memberCount);
+        int i = 0;
+        for (Student student : students) {
+            snapshot.rollNumbers[i] = student.getRollNumber();
+            snapshot.nameSources[i] = student.getNameSource();
+            snapshot.nameSourcePositions[i] = student.getNameSourcePosition();
+            snapshot.nameSourceLengths[i] = student.getNameSourceLength();
+            snapshot.departments[i] = student.getDepartment();
+            if (student.isPresent()) {
+                snapshot.present[i >>> 6] |= 1L << i;
+            }
+            i++;
+        }
+
+        int member = 0;
+        int r = 0;
+        for (Room room : rooms) {
+            snapshot.roomNumbers[r] = room.getRoomNumber();
+            snapshot.roomCapacities[r] = room.getCapacity();
+            snapshot.memberOffsets[r] = member;
+            for (Student student : room.getStudents()) {
+                snapshot.memberRollNumbers[member++] = student.getRollNumber();
+            }
+            r++;
+        }
+        snapshot.memberOffsets[roomCount] = member;
+        return snapshot;
+    }
+
+    public void writeTo(OutputStream output, long baseGeneration) throws IOException {
+        int studentCount = rollNumbers.length;
+        byte[][] nameBytes = new byte[studentCount][];
+        long nameBlobBytes = 0;
+        for (int i = 0; i < studentCount; i++) {
+            Object source = nameSources[i];
+            if (source instanceof String) {
+                nameBytes[i] = ((String) source).getBytes(StandardCharsets.UTF_8);
+            } else if (source instanceof StudentSnapshot) {
+                nameBytes[i] = ((StudentSnapshot) source).getNameBytes(nameSourcePositions[i]);
+            } else {
+                // Arena bytes are never overwritten once written, so the captured range is still intact
+                nameBytes[i] = java.util.Arrays.copyOfRange((byte[]) source, nameSourcePositions[i], nameSourcePositions[i] + nameSourceLengths[i]);
+            }
+            nameBlobBytes += nameBytes[i].length;
+        }
+        if (nameBlobBytes > Integer.MAX_VALUE) {
+            throw new IOException("Too many students for a single snapshot.");
+        }
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+        out.writeInt(StudentSnapshot.MAGIC);
+        out.writeInt(StudentSnapshot.VERSION);
+        out.writeLong(baseGeneration);
+        out.writeInt(studentCount);
+        out.writeInt(roomNumbers.length);
+        out.writeInt(memberRollNumbers.length);
+        // Departments outside the enum are no longer written; readers still accept them
+        out.writeInt(0);
+        out.writeLong(nameBlobBytes);
+
+        for (int rollNumber : rollNumbers) {
+            out.writeInt(rollNumber);
+        }
+        int nameOffset = 0;
+        out.writeInt(nameOffset);
+        for (byte[] name : nameBytes) {
+            nameOffset += name.length;
+            out.writeInt(nameOffset);
+        }
+        for (Department department : departments) {
+            out.writeByte(department.ordinal());
+        }
+        for (long word : present) {
+            out.writeLong(word);
+        }
+        for (int roomNumber : roomNumbers) {
+            out.writeInt(roomNumber);
+        }
+        for (int capacity : roomCapacities) {
+            out.writeInt(capacity);
+        }
+        for (int memberOffset : memberOffsets) {
+            out.writeInt(memberOffset);
+        }
+        for (int rollNumber : memberRollNumbers) {
+            out.writeInt(rollNumber);
+        }
+        for (byte[] name : nameBytes) {
+            out.write(name);
+        }
+        out.flush();
+    }
+}
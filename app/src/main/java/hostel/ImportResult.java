@@ -0,0 +1,18 @@
+package hostel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Rows accepted and rejected by a bulk import
+class ImportResult {
+    private final List<Student> students = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,107 @@
+package hostel;
+
+// Open-addressing map from a primitive int to a non-negative int, laid out like IntObjectMap
+// but with both sides in int arrays. A stored value of 0 marks an empty slot, so values are kept + 1.
+class IntIntMap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    public IntIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntIntMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Returns -1 if the key is not present
+    public int get(int key) {
+        return values[indexOf(key)] - 1;
+    }
+
+    public void put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values are not supported.");
+        }
+        int slot = indexOf(key);
+        boolean added = values[slot] == 0;
+        keys[slot] = key;
+        values[slot] = value + 1;
+        if (added && ++size > keys.length * 3 / 4) {
+            resize(keys.length << 1);
+        }
+    }
+
+    // Returns the removed value, or -1 if the key was not present
+    public int remove(int key) {
+        int slot = indexOf(key);
+        int previous = values[slot] - 1;
+        if (previous < 0) {
+            return -1;
+        }
+
+        // Shift later entries of the probe chain back so every lookup still finds its key
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = 0;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    // Returns the slot holding the key, or the empty slot where it would be inserted
+    private int indexOf(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int slot = indexOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
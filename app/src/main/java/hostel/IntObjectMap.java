@@ -0,0 +1,117 @@
+package hostel;
+
+// Open-addressing hash map keyed by a primitive int, so lookups never box the key.
+// Uses linear probing with backward-shift deletion, so there are no tombstones to clean up.
+class IntObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return values[indexOf(key)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[indexOf(key)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported.");
+        }
+        int slot = indexOf(key);
+        V previous = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previous == null && ++size > keys.length * 3 / 4) {
+            resize(keys.length << 1);
+        }
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int slot = indexOf(key);
+        V previous = (V) values[slot];
+        if (previous == null) {
+            return null;
+        }
+
+        // Shift later entries of the probe chain back so every lookup still finds its key
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (values[next] != null) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[hole] = null;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(values, null);
+        size = 0;
+    }
+
+    // Returns the slot holding the key, or the empty slot where it would be inserted
+    private int indexOf(int key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = indexOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,160 @@
+package hostel;
+
+import java.io.*;
+import java.util.zip.CRC32;
+
+// One typed mutation, framed on disk as [length][payload][CRC32] so a torn tail is detected on replay
+class JournalRecord {
+    private final MutationType type;
+    private final int rollNumber;
+    private final String name;
+    private final Department department;
+    private final int roomNumber;
+    private final boolean present;
+    private final int capacity;
+
+    private JournalRecord(MutationType type, int rollNumber, String name, Department department, int roomNumber, boolean present) {
+        this(type, rollNumber, name, department, roomNumber, present, 0);
+    }
+
+    private JournalRecord(MutationType type, int rollNumber, String name, Department department, int roomNumber, boolean present, int capacity) {
+        this.type = type;
+        this.rollNumber = rollNumber;
+        this.name = name;
+        this.department = department;
+        this.roomNumber = roomNumber;
+        this.present = present;
+        this.capacity = capacity;
+    }
+
+    public static JournalRecord addStudent(Student student) {
+        return new JournalRecord(MutationType.ADD_STUDENT, student.getRollNumber(), student.getName(), student.getDepartment(), 0, false);
+    }
+
+    public static JournalRecord modifyStudent(Student student) {
+        return new JournalRecord(MutationType.MODIFY_STUDENT, student.getRollNumber(), student.getName(), student.getDepartment(), 0, false);
+    }
+
+    public static JournalRecord removeStudent(int rollNumber) {
+        return new JournalRecord(MutationType.REMOVE_STUDENT, rollNumber, null, null, 0, false);
+    }
+
+    public static JournalRecord allocateRoom(int roomNumber, int rollNumber) {
+        return new JournalRecord(MutationType.ALLOCATE_ROOM, rollNumber, null, null, roomNumber, false);
+    }
+
+    public static JournalRecord deallocateRoom(int rollNumber) {
+        return new JournalRecord(MutationType.DEALLOCATE_ROOM, rollNumber, null, null, 0, false);
+    }
+
+    public static JournalRecord markAttendance(int rollNumber, boolean present) {
+        return new JournalRecord(MutationType.MARK_ATTENDANCE, rollNumber, null, null, 0, present);
+    }
+
+    // Also creates the room on replay if it does not exist yet
+    public static JournalRecord setRoomCapacity(int roomNumber, int capacity) {
+        return new JournalRecord(MutationType.SET_ROOM_CAPACITY, 0, null, null, roomNumber, false, capacity);
+    }
+
+    public MutationType getType() {
+        return type;
+    }
+
+    public int getRollNumber() {
+        return rollNumber;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // Null if the record names a department that no longer exists
+    public Department getDepartment() {
+        return department;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public boolean isPresent() {
+        return present;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(32);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeByte(type.ordinal());
+        payload.writeInt(rollNumber);
+        switch (type) {
+            case ADD_STUDENT:
+            case MODIFY_STUDENT:
+                payload.writeUTF(name);
+                payload.writeUTF(department.name());
+                break;
+            case ALLOCATE_ROOM:
+                payload.writeInt(roomNumber);
+                break;
+            case MARK_ATTENDANCE:
+                payload.writeBoolean(present);
+                break;
+            case SET_ROOM_CAPACITY:
+                payload.writeInt(roomNumber);
+                payload.writeInt(capacity);
+                break;
+            default:
+                break;
+        }
+
+        byte[] bytes = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt((int) crc.getValue());
+    }
+
+    // Returns null at the end of the stream or at a torn or corrupt record
+    public static JournalRecord readFrom(DataInputStream in) throws IOException {
+        byte[] bytes;
+        int checksum;
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > 1 << 16) {
+                return null;
+            }
+            bytes = new byte[length];
+            in.readFully(bytes);
+            checksum = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes));
+        MutationType type = MutationType.values()[payload.readUnsignedByte()];
+        int rollNumber = payload.readInt();
+        switch (type) {
+            case ADD_STUDENT:
+            case MODIFY_STUDENT:
+                return new JournalRecord(type, rollNumber, payload.readUTF(), Department.parse(payload.readUTF()), 0, false);
+            case ALLOCATE_ROOM:
+                return new JournalRecord(type, rollNumber, null, null, payload.readInt(), false);
+            case MARK_ATTENDANCE:
+                return new JournalRecord(type, rollNumber, null, null, 0, payload.readBoolean());
+            case SET_ROOM_CAPACITY:
+                return new JournalRecord(type, rollNumber, null, null, payload.readInt(), false, payload.readInt());
+            default:
+                return new JournalRecord(type, rollNumber, null, null, 0, false);
+        }
+    }
+}
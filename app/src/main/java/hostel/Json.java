@@ -0,0 +1,190 @@
+package hostel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Minimal JSON support for the HTTP server: writes values and parses flat request objects
+// whose values are strings, numbers, booleans or null
+class Json {
+    private final String text;
+    private int position;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    public static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    public static String student(Student student, Integer roomNumber) {
+        return "{\"rollNumber\":" + student.getRollNumber()
+                + ",\"name\":" + quote(student.getName())
+                + ",\"department\":" + quote(student.getDepartment().name())
+                + ",\"present\":" + student.isPresent()
+                + ",\"room\":" + roomNumber + "}";
+    }
+
+    public static String result(OperationResult result) {
+        return "{\"success\":" + result.isSuccess() + ",\"message\":" + quote(result.getMessage()) + "}";
+    }
+
+    // Values come back as their text; null values are left out
+    public static Map<String, String> parseObject(String text) {
+        Json parser = new Json(text);
+        Map<String, String> values = new HashMap<>();
+        parser.expect('{');
+        if (parser.peek() == '}') {
+            parser.position++;
+            parser.expectEnd();
+            return values;
+        }
+        while (true) {
+            String key = parser.readString();
+            parser.expect(':');
+            String value = parser.readValue();
+            if (value != null) {
+                values.put(key, value);
+            }
+            char next = parser.next();
+            if (next == '}') {
+                break;
+            }
+            if (next != ',') {
+                throw new IllegalArgumentException("Expected , or } at position " + (parser.position - 1) + ".");
+            }
+        }
+        parser.expectEnd();
+        return values;
+    }
+
+    private String readValue() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        int start = position;
+        while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) < 0) {
+            position++;
+        }
+        String literal = text.substring(start, position);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (!literal.equals("true") && !literal.equals("false") && !literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            throw new IllegalArgumentException("Unsupported value at position " + start + ".");
+        }
+        return literal;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Unterminated string.");
+            }
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                throw new IllegalArgumentException("Unterminated string.");
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw new IllegalArgumentException("Invalid escape in string.");
+                    }
+                    builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    position += 4;
+                    break;
+                default:
+                    builder.append(escaped);
+            }
+        }
+    }
+
+    private char peek() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw new IllegalArgumentException("Unexpected end of JSON.");
+        }
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (next() != expected) {
+            throw new IllegalArgumentException("Expected " + expected + " at position " + (position - 1) + ".");
+        }
+    }
+
+    private void expectEnd() {
+        skipWhitespace();
+        if (position != text.length()) {
+            throw new IllegalArgumentException("Unexpected content after JSON object.");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package hostel;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear latency histogram in the style of HdrHistogram: values below 16 ns get a bucket
+// each, and every power of two above that is split into 16 sub-buckets, so a recorded value is
+// off by at most 1/16 of itself. Recording is a few uncontended atomic adds.
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder untimed = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts.incrementAndGet(bucketOf(nanos));
+        count.increment();
+        total.add(nanos);
+        long previous = max.get();
+        while (nanos > previous && !max.compareAndSet(previous, nanos)) {
+            previous = max.get();
+        }
+    }
+
+    // Counts an occurrence whose latency was not measured; it takes no part in the percentiles
+    public void recordUntimed() {
+        untimed.increment();
+    }
+
+    public long getCount() {
+        return count.sum() + untimed.sum();
+    }
+
+    public double getMeanNanos() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) total.sum() / recorded;
+    }
+
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    // Midpoint of the bucket holding the value at the percentile, or 0 if nothing was recorded
+    public long getPercentileNanos(double percentile) {
+        long recorded = count.sum();
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(recorded * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(lowestValueOf(bucket) + widthOf(bucket) / 2, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.reset();
+        untimed.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    private static int bucketOf(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value);
+        if (highestBit < SUB_BUCKET_BITS) {
+            return (int) value;
+        }
+        int shift = highestBit - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long lowestValueOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS | bucket % SUB_BUCKETS) << shift;
+    }
+
+    private static long widthOf(int bucket) {
+        return bucket < SUB_BUCKETS ? 1 : 1L << (bucket / SUB_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,110 @@
+package hostel;
+
+import java.io.*;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Drives a running HostelServer from several threads and reports throughput and latency.
+// Each request either looks up a random student or marks their attendance; the students are
+// added first, and ones that already exist are reused.
+class LoadGenerator {
+    private static final int FIRST_ROLL_NUMBER = 90000;
+    private static final int STUDENTS = 1000;
+
+    private final URI base;
+    private final int threads;
+    private final int requests;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    public LoadGenerator(URI base, int threads, int requests) {
+        this.base = base;
+        this.threads = threads;
+        this.requests = requests;
+    }
+
+    public void run() throws IOException, InterruptedException {
+        for (int i = 0; i < STUDENTS; i++) {
+            String body = "{\"name\":\"Load\",\"rollNumber\":" + (FIRST_ROLL_NUMBER + i) + ",\"department\":\"" + Department.values()[i % Department.values().length] + "\"}";
+            send(post("/students", body));
+        }
+
+        long[][] latencies = new long[threads][];
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService workers = HostelServer.newRequestExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            int count = requests / threads + (t < requests % threads ? 1 : 0);
+            futures.add(workers.submit(() -> {
+                long[] timings = new long[count];
+                java.util.Random random = new java.util.Random(worker);
+                for (int i = 0; i < count; i++) {
+                    int rollNumber = FIRST_ROLL_NUMBER + random.nextInt(STUDENTS);
+                    HttpRequest request = random.nextInt(5) == 0
+                            ? post("/attendance", "{\"rollNumber\":" + rollNumber + ",\"present\":" + random.nextBoolean() + "}")
+                            : HttpRequest.newBuilder(base.resolve("/students/" + rollNumber)).GET().build();
+                    long sent = System.nanoTime();
+                    try {
+                        if (send(request) != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                    timings[i] = System.nanoTime() - sent;
+                }
+                latencies[worker] = timings;
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+
+        long[] all = new long[requests];
+        int position = 0;
+        for (long[] timings : latencies) {
+            System.arraycopy(timings, 0, all, position, timings.length);
+            position += timings.length;
+        }
+        java.util.Arrays.sort(all);
+        System.out.printf("%d requests on %d threads in %.2f s: %.0f req/s, %d failed%n", requests, threads, elapsed / 1e9, requests * 1e9 / elapsed, failures.get());
+        System.out.printf("Latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", percentile(all, 50) / 1e6, percentile(all, 99) / 1e6, all[all.length - 1] / 1e6);
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private int send(HttpRequest request) throws IOException {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending a request.");
+        }
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * percent / 100.0) - 1)];
+    }
+}
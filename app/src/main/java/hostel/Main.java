@@ -0,0 +1,276 @@
+package hostel;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.InputMismatchException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Scanner;
+
+public class Main {
+    private static Scanner scanner = new Scanner(System.in);
+    private static HostelManagementSystem managementSystem;
+    private static HostelShards hostels;
+    private static String hostelName;
+    private static final String LOAD_TEST_USAGE = "Usage: --load-test <base url> [threads, at least 1] [requests, at least 1]";
+
+    public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("--load-test")) {
+            runLoadTest(args);
+            return;
+        }
+        if (args.length >= 3 && args[0].equals("--generate")) {
+            generateData(args);
+            return;
+        }
+        if (!openHostels()) {
+            System.exit(1);
+        }
+        if (args.length == 2 && args[0].equals("--batch")) {
+            System.exit(runBatch(new File(args[1])));
+        }
+        if (args.length >= 1 && args[0].equals("--server")) {
+            runServer(args.length >= 2 ? Integer.parseInt(args[1]) : 8080);
+            return;
+        }
+        showMenu();
+    }
+
+    // -Dhostel.names=A,B,... runs each hostel as a shard in its own directory under -Dhostel.root
+    // (default "hostels"); without it the single YBAnnex hostel keeps its data in the working
+    // directory. Commands act on the first hostel until another is chosen from the menu.
+    private static boolean openHostels() {
+        Map<String, File> directories = new LinkedHashMap<>();
+        String names = System.getProperty("hostel.names");
+        if (names == null || names.isBlank()) {
+            directories.put("YBAnnex", new File("."));
+        } else {
+            File root = new File(System.getProperty("hostel.root", "hostels"));
+            for (String name : names.split(",")) {
+                if (!name.isBlank()) {
+                    directories.put(name.trim(), new File(root, name.trim()));
+                }
+            }
+        }
+        try {
+            hostels = HostelShards.open(directories);
+        } catch (IOException e) {
+            System.out.println("Error occurred while opening the hostels: " + e.getMessage());
+            return false;
+        }
+        hostelName = hostels.getNames().get(0);
+        managementSystem = hostels.get(hostelName);
+        return true;
+    }
+
+    private static void switchHostel() {
+        System.out.println("Hostels: " + String.join(", ", hostels.getNames()));
+        System.out.print("Enter hostel name: ");
+        String name = scanner.nextLine().trim();
+        HostelManagementSystem selected = hostels.get(name);
+        if (selected == null) {
+            System.out.println("No hostel found with the given name.");
+            return;
+        }
+        managementSystem = selected;
+        hostelName = hostels.getNames().stream().filter(name::equalsIgnoreCase).findFirst().orElse(name);
+        System.out.println("Now managing " + hostelName + ".");
+    }
+
+    // Serves until the process is stopped; the shutdown hook closes the journal cleanly
+    private static void runServer(int port) {
+        try {
+            HostelServer server = new HostelServer(managementSystem, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                hostels.close();
+            }));
+            server.start();
+            System.out.println("Serving on port " + server.getPort() + ".");
+        } catch (IOException e) {
+            System.out.println("Error occurred while starting the server.");
+            hostels.close();
+        }
+    }
+
+    // --generate <directory> <count> [seed]
+    private static void generateData(String[] args) {
+        try {
+            File directory = new File(args[1]);
+            Files.createDirectories(directory.toPath());
+            SyntheticData.write(directory, Integer.parseInt(args[2]), args.length >= 4 ? Long.parseLong(args[3]) : 1);
+            System.out.println("Generated " + args[2] + " students in " + directory + ".");
+        } catch (IOException e) {
+            System.out.println("Error occurred while generating data.");
+        }
+    }
+
+    // --load-test <base url> [threads] [requests]
+    private static void runLoadTest(String[] args) {
+        URI base;
+        int threads;
+        int requests;
+        try {
+            base = URI.create(args[1]);
+            threads = args.length >= 3 ? Integer.parseInt(args[2]) : 32;
+            requests = args.length >= 4 ? Integer.parseInt(args[3]) : 100000;
+        } catch (IllegalArgumentException e) {
+            // Also a malformed number
+            System.out.println(LOAD_TEST_USAGE);
+            return;
+        }
+        if (threads < 1 || requests < 1) {
+            System.out.println(LOAD_TEST_USAGE);
+            return;
+        }
+        try {
+            new LoadGenerator(base, threads, requests).run();
+        } catch (IOException e) {
+            System.out.println("Error occurred while running the load test: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Runs a command file non-interactively; exits with 1 if any command failed
+    private static int runBatch(File file) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        BatchRunner runner = new BatchRunner(managementSystem, out);
+        long start = System.nanoTime();
+        try {
+            runner.run(file);
+        } catch (IOException e) {
+            System.out.println("Error occurred while reading the batch file.");
+            hostels.close();
+            return 1;
+        }
+        hostels.close();
+        System.out.printf("Processed %d commands in %d ms, %d failed.%n", runner.getCommandCount(), (System.nanoTime() - start) / 1000000, runner.getFailureCount());
+        return runner.getFailureCount() == 0 ? 0 : 1;
+    }
+
+    public static void showMenu() {
+        while (true) {
+            System.out.println("-------Welcome to Hostel Management system of the " + hostelName + "-------");
+            System.out.println("1. Add Student");
+            System.out.println("2. Display All Students");
+            System.out.println("3. Search Student");
+            System.out.println("4. Modify Student Details");
+            System.out.println("5. Remove Student");
+            System.out.println("6. Allocate Room");
+            System.out.println("7. Remove Student from Room");
+            System.out.println("8. Mark Attendance");
+            System.out.println("9. Display Students by Department");
+            System.out.println("10. Display Student Room and Attendance");
+            System.out.println("11. Delete All Data");
+            System.out.println("12. Auto-Allocate Room");
+            System.out.println("13. Attendance History Report");
+            System.out.println("14. Bulk Import Students");
+            System.out.println("15. Export Students");
+            System.out.println("16. Show Stats");
+            System.out.println("17. Set Room Capacity");
+            System.out.println("18. Auto-Allocate All Unallocated Students");
+            System.out.println("19. Roll Call");
+            System.out.println("20. Search All Hostels");
+            System.out.println("21. Display Students by Department in All Hostels");
+            System.out.println("22. Free Beds by Hostel");
+            System.out.println("23. Switch Hostel");
+            System.out.println("24. Exit");
+            System.out.print("Enter your choice: ");
+
+            int choice = 0;
+            try {
+                choice = scanner.nextInt();
+                scanner.nextLine();
+            } catch (InputMismatchException e) {
+                System.out.println("Invalid choice format. Please enter a numeric value.");
+                scanner.nextLine();
+                continue;
+            }
+
+            switch (choice) {
+                case 1:
+                    managementSystem.addStudent();
+                    break;
+                case 2:
+                    managementSystem.displayAllStudents();
+                    break;
+                case 3:
+                    managementSystem.searchStudent();
+                    break;
+                case 4:
+                    managementSystem.modifyStudent();
+                    break;
+                case 5:
+                    managementSystem.removeStudent();
+                    break;
+                case 6:
+                    managementSystem.allocateRoom();
+                    break;
+                case 7:
+                    managementSystem.removeStudentFromRoom();
+                    break;
+                case 8:
+                    managementSystem.markAttendance();
+                    break;
+                case 9:
+                    managementSystem.displayStudentsByDepartment();
+                    break;
+                case 10:
+                    managementSystem.displayStudentRoomAndAttendance();
+                    break;
+                case 11:
+                    managementSystem.deleteAllData();
+                    break;
+                case 12:
+                    managementSystem.autoAllocateRoom();
+                    break;
+                case 13:
+                    managementSystem.displayAttendanceHistory();
+                    break;
+                case 14:
+                    managementSystem.importStudents();
+                    break;
+                case 15:
+                    managementSystem.exportStudents();
+                    break;
+                case 16:
+                    managementSystem.showStats();
+                    break;
+                case 17:
+                    managementSystem.setRoomCapacity();
+                    break;
+                case 18:
+                    managementSystem.autoAllocateAll();
+                    break;
+                case 19:
+                    managementSystem.rollCall();
+                    break;
+                case 20:
+                    hostels.searchStudent();
+                    break;
+                case 21:
+                    hostels.displayStudentsByDepartment();
+                    break;
+                case 22:
+                    hostels.displayFreeBeds();
+                    break;
+                case 23:
+                    switchHostel();
+                    break;
+                case 24:
+                    hostels.close();
+                    System.exit(0);
+                    break;
+                default:
+                    System.out.println("Invalid choice. Please try again.");
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package hostel;
+
+// Operations and persistence calls whose latency is tracked
+enum Metric {
+    ADD_STUDENT("addStudent"),
+    MODIFY_STUDENT("modifyStudent"),
+    REMOVE_STUDENT("removeStudent"),
+    ALLOCATE_ROOM("allocateRoom"),
+    AUTO_ALLOCATE_ROOM("autoAllocateRoom"),
+    AUTO_ALLOCATE_ALL("autoAllocateAll"),
+    REMOVE_STUDENT_FROM_ROOM("removeStudentFromRoom"),
+    MARK_ATTENDANCE("markAttendance"),
+    ROLL_CALL("rollCall"),
+    FIND_STUDENT("findStudent", true),
+    SEARCH_STUDENTS("searchStudents"),
+    LIST_STUDENTS("listStudentsAfter"),
+    GET_STUDENT("getStudentByRollNumber", true),
+    GET_ROOM("getRoomByNumber", true),
+    DISPLAY_BY_DEPARTMENT("displayStudentsByDepartment"),
+    EXPORT_STUDENTS("exportStudents"),
+    LOAD_STUDENT_DATA("loadStudentData"),
+    LOAD_ATTENDANCE_DATA("loadAttendanceData"),
+    LOAD_JOURNAL_DATA("loadJournalData"),
+    SAVE_STUDENT_DATA("saveStudentData"),
+    SAVE_ATTENDANCE_DATA("saveAttendanceData"),
+    JOURNAL_SYNC("journalSync"),
+    JOURNAL_FSYNC("journalFsync"),
+    SNAPSHOT_WRITE("snapshotWrite");
+
+    private final String label;
+    // Calls cheaper than reading the clock twice are counted every time but timed only now and then
+    private final boolean sampled;
+
+    Metric(String label) {
+        this(label, false);
+    }
+
+    Metric(String label, boolean sampled) {
+        this.label = label;
+        this.sampled = sampled;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
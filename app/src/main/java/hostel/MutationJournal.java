@@ -0,0 +1,391 @@
+package hostel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Append-only write-ahead journal of every mutation.
+// Records go to numbered segment files; a background flusher writes whatever has accumulated
+// since its last fsync as one batch (group commit). Compaction rotates to a new segment and
+// writes the full state as a snapshot in the background, after which older segments are deleted.
+// Replay loads the snapshot and then every segment at or after the snapshot's generation.
+// Once a write fails the journal stays failed: appends are rejected and sync throws, since
+// nothing appended after the failure can be made durable any more.
+class MutationJournal {
+    private static final String SNAPSHOT_FILE = "hostel_snapshot.dat";
+    private static final String SEGMENT_PREFIX = "hostel_journal.";
+    private static final long COMPACTION_THRESHOLD_BYTES = 4L << 20;
+
+    private final File directory;
+    private final Object appendLock = new Object();
+    private final Object writeLock = new Object();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ByteArrayOutputStream pendingBytes = new ByteArrayOutputStream();
+    private DataOutputStream pending = new DataOutputStream(pendingBytes);
+    private long appendedSequence;
+    private long durableSequence;
+    private long generation;
+    private long segmentBytes;
+    private FileChannel segment;
+    private Thread flusher;
+    private volatile boolean running;
+    private volatile IOException failure;
+    private volatile boolean compactionFailed;
+    private boolean compacting;
+    private Runnable compactionHandler;
+    private StudentSnapshot snapshot;
+    private HostelMetrics metrics = new HostelMetrics();
+
+    public MutationJournal(File directory) {
+        this.directory = directory;
+    }
+
+    public boolean exists() {
+        return new File(directory, SNAPSHOT_FILE).exists() || !listSegments().isEmpty();
+    }
+
+    // Run once the journal grows large enough to compact; it must call compact with the current
+    // state, captured while no mutation is in flight
+    public void setCompactionHandler(Runnable compactionHandler) {
+        this.compactionHandler = compactionHandler;
+    }
+
+    // Fsyncs, snapshot writes and the bytes of both are recorded here
+    public void setMetrics(HostelMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // Maps the latest snapshot, or returns null if none has been written yet
+    public StudentSnapshot openSnapshot() throws IOException {
+        snapshot = StudentSnapshot.open(new File(directory, SNAPSHOT_FILE));
+        if (snapshot != null) {
+            metrics.addBytesRead(new File(directory, SNAPSHOT_FILE).length());
+        }
+        return snapshot;
+    }
+
+    // Replays every record written after the snapshot returned by openSnapshot
+    public void replay(Consumer<JournalRecord> target) throws IOException {
+        long baseGeneration = 0;
+        if (snapshot != null) {
+            baseGeneration = snapshot.getBaseGeneration();
+            if (snapshot.getVersion() == StudentSnapshot.LEGACY_VERSION) {
+                snapshot.replayLegacyRecords(target);
+            }
+        }
+
+        generation = baseGeneration;
+        for (long segmentGeneration : listSegments()) {
+            if (segmentGeneration < baseGeneration) {
+                continue;
+            }
+            // Every start opens a fresh segment, so drop the ones that were never written to
+            if (segmentFile(segmentGeneration).length() == 0) {
+                Files.deleteIfExists(segmentFile(segmentGeneration).toPath());
+                continue;
+            }
+            metrics.addBytesRead(segmentFile(segmentGeneration).length());
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile(segmentGeneration))))) {
+                JournalRecord record;
+                while ((record = JournalRecord.readFrom(in)) != null) {
+                    target.accept(record);
+                }
+            }
+            generation = Math.max(generation, segmentGeneration);
+        }
+    }
+
+    // Opens a fresh segment and starts the group-commit flusher
+    public void start() throws IOException {
+        synchronized (appendLock) {
+            generation++;
+            segment = openSegment(generation);
+            segmentBytes = 0;
+            running = true;
+        }
+        flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // Appends a record and waits until the batch containing it has been fsynced
+    public void commit(JournalRecord record) {
+        sync(append(record));
+    }
+
+    // Waits until every record up to the sequence is durable, then compacts if the journal has grown enough.
+    // Throws if the journal failed or was closed first.
+    public void sync(long sequence) {
+        awaitDurable(sequence);
+        maybeCompact();
+    }
+
+    // Appends the records as one run, so the flusher writes and fsyncs them in the same batch
+    public long appendAll(List<JournalRecord> records) {
+        synchronized (appendLock) {
+            checkNotFailed();
+            try {
+                for (JournalRecord record : records) {
+                    record.writeTo(pending);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            appendedSequence += records.size();
+            appendLock.notifyAll();
+            return appendedSequence;
+        }
+    }
+
+    public long append(JournalRecord record) {
+        synchronized (appendLock) {
+            checkNotFailed();
+            try {
+                record.writeTo(pending);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            appendedSequence++;
+            appendLock.notifyAll();
+            return appendedSequence;
+        }
+    }
+
+    public void awaitDurable(long sequence) {
+        synchronized (appendLock) {
+            while (durableSequence < sequence && running && failure == null) {
+                try {
+                    appendLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (durableSequence < sequence) {
+                checkNotFailed();
+                throw new UncheckedIOException(new IOException("The journal was closed before the record was written."));
+            }
+        }
+    }
+
+    // Caller must hold appendLock
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("The journal can no longer be written.", failure);
+        }
+    }
+
+    // Records the first failure and drops what can no longer be written; caller must hold appendLock
+    private void fail(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+        pendingBytes = new ByteArrayOutputStream();
+        pending = new DataOutputStream(pendingBytes);
+        appendLock.notifyAll();
+    }
+
+    // Rotates to a new segment and writes the given state as a snapshot in the background
+    public void compact(HostelSnapshot state) {
+        long snapshotGeneration;
+        synchronized (writeLock) {
+            synchronized (appendLock) {
+                try {
+                    writePending();
+                    segment.close();
+                    generation++;
+                    segment = openSegment(generation);
+                    segmentBytes = 0;
+                    compacting = true;
+                } catch (IOException e) {
+                    fail(e);
+                    compactionFailed = true;
+                    System.out.println("Error occurred while rotating the journal.");
+                    return;
+                }
+                snapshotGeneration = generation;
+            }
+        }
+
+        compactor.execute(() -> {
+            try {
+                writeSnapshot(state, snapshotGeneration);
+                compactionFailed = false;
+                for (long segmentGeneration : listSegments()) {
+                    if (segmentGeneration < snapshotGeneration) {
+                        Files.deleteIfExists(segmentFile(segmentGeneration).toPath());
+                    }
+                }
+            } catch (IOException e) {
+                compactionFailed = true;
+                System.out.println("Error occurred while compacting the journal.");
+            } finally {
+                synchronized (appendLock) {
+                    compacting = false;
+                }
+            }
+        });
+    }
+
+    // Waits for every compaction started so far and reports whether the last one wrote its snapshot
+    public boolean awaitCompaction() {
+        try {
+            compactor.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+        return !compactionFailed;
+    }
+
+    public void close() {
+        synchronized (writeLock) {
+            synchronized (appendLock) {
+                try {
+                    writePending();
+                } catch (IOException e) {
+                    System.out.println("Error occurred while writing the journal.");
+                }
+                running = false;
+                appendLock.notifyAll();
+            }
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(10, TimeUnit.SECONDS);
+            if (segment != null) {
+                segment.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.out.println("Error occurred while closing the journal.");
+        }
+    }
+
+    private void maybeCompact() {
+        Runnable handler = compactionHandler;
+        synchronized (appendLock) {
+            if (handler == null || compacting || segmentBytes < COMPACTION_THRESHOLD_BYTES) {
+                return;
+            }
+            compacting = true;
+        }
+        handler.run();
+    }
+
+    private void flushLoop() {
+        while (running) {
+            synchronized (appendLock) {
+                while (pendingBytes.size() == 0 && running) {
+                    try {
+                        appendLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            synchronized (writeLock) {
+                try {
+                    writePending();
+                } catch (IOException e) {
+                    System.out.println("Error occurred while writing the journal.");
+                    synchronized (appendLock) {
+                        fail(e);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    // Writes and fsyncs everything appended so far as one batch; caller must hold writeLock
+    private void writePending() throws IOException {
+        ByteBuffer batch;
+        long batchSequence;
+        FileChannel target;
+        synchronized (appendLock) {
+            if (pendingBytes.size() == 0) {
+                return;
+            }
+            batch = ByteBuffer.wrap(pendingBytes.toByteArray());
+            pendingBytes = new ByteArrayOutputStream();
+            pending = new DataOutputStream(pendingBytes);
+            batchSequence = appendedSequence;
+            target = segment;
+            segmentBytes += batch.remaining();
+        }
+
+        long start = metrics.start(Metric.JOURNAL_FSYNC);
+        int bytes = batch.remaining();
+        while (batch.hasRemaining()) {
+            target.write(batch);
+        }
+        target.force(false);
+        metrics.record(Metric.JOURNAL_FSYNC, start);
+        metrics.addBytesWritten(bytes);
+
+        synchronized (appendLock) {
+            durableSequence = batchSequence;
+            appendLock.notifyAll();
+        }
+    }
+
+    private void writeSnapshot(HostelSnapshot state, long snapshotGeneration) throws IOException {
+        long start = metrics.start(Metric.SNAPSHOT_WRITE);
+        File temporary = new File(directory, SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary)) {
+            state.writeTo(file, snapshotGeneration);
+            file.getFD().sync();
+        }
+        metrics.addBytesWritten(temporary.length());
+        metrics.record(Metric.SNAPSHOT_WRITE, start);
+        Files.move(temporary.toPath(), new File(directory, SNAPSHOT_FILE).toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private FileChannel openSegment(long segmentGeneration) throws IOException {
+        return FileChannel.open(segmentFile(segmentGeneration).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private File segmentFile(long segmentGeneration) {
+        return new File(directory, SEGMENT_PREFIX + segmentGeneration);
+    }
+
+    private List<Long> listSegments() {
+        List<Long> generations = new ArrayList<>();
+        String[] names = directory.list();
+        if (names != null) {
+            for (String name : names) {
+                if (name.startsWith(SEGMENT_PREFIX)) {
+                    try {
+                        generations.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a journal segment
+                    }
+                }
+            }
+        }
+        Collections.sort(generations);
+        return generations;
+    }
+}
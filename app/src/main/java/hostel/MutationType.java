@@ -0,0 +1,11 @@
+package hostel;
+
+enum MutationType {
+    ADD_STUDENT,
+    MODIFY_STUDENT,
+    REMOVE_STUDENT,
+    ALLOCATE_ROOM,
+    DEALLOCATE_ROOM,
+    MARK_ATTENDANCE,
+    SET_ROOM_CAPACITY
+}
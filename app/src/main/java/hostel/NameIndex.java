@@ -0,0 +1,167 @@
+package hostel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+// Case-folded trie over student names for prefix and typo-tolerant search.
+// Each node lists the roll numbers of the names that end at it.
+class NameIndex {
+    private final TrieNode root = new TrieNode();
+
+    public void add(String name, int rollNumber) {
+        TrieNode node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.childOrCreate(Character.toLowerCase(name.charAt(i)));
+        }
+        node.addRollNumber(rollNumber);
+    }
+
+    public void remove(String name, int rollNumber) {
+        TrieNode node = root;
+        for (int i = 0; i < name.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(name.charAt(i)));
+        }
+        if (node != null) {
+            node.removeRollNumber(rollNumber);
+        }
+    }
+
+    public void clear() {
+        root.clear();
+    }
+
+    // Up to limit roll numbers: names starting with the term (shortest first), then names within
+    // a small edit distance of it (closest first)
+    public List<Integer> search(String term, int limit) {
+        String folded = term.toLowerCase();
+        LinkedHashSet<Integer> results = new LinkedHashSet<>();
+
+        TrieNode prefixNode = root;
+        for (int i = 0; i < folded.length() && prefixNode != null; i++) {
+            prefixNode = prefixNode.child(folded.charAt(i));
+        }
+        if (prefixNode != null) {
+            // Breadth-first so exact and shorter matches come before longer ones
+            ArrayDeque<TrieNode> queue = new ArrayDeque<>();
+            queue.add(prefixNode);
+            while (!queue.isEmpty() && results.size() < limit) {
+                TrieNode node = queue.poll();
+                for (int i = 0; i < node.rollNumberCount && results.size() < limit; i++) {
+                    results.add(node.rollNumbers[i]);
+                }
+                for (int i = 0; i < node.childCount; i++) {
+                    queue.add(node.children[i]);
+                }
+            }
+        }
+
+        // Widen the edit distance one step at a time so close matches are found before the wider, costlier pass
+        int maxDistance = folded.length() < 3 ? 0 : folded.length() < 6 ? 1 : 2;
+        int[][] rows = new int[folded.length() + maxDistance + 2][folded.length() + 1];
+        for (int i = 0; i <= folded.length(); i++) {
+            rows[0][i] = i;
+        }
+        for (int distance = 1; distance <= maxDistance && results.size() < limit; distance++) {
+            List<Integer> matches = new ArrayList<>();
+            int needed = limit - results.size();
+            for (int i = 0; i < root.childCount && matches.size() < needed; i++) {
+                // Wider passes assume the first letter is right, which keeps them to one subtree
+                if (distance == 1 || root.keys[i] == folded.charAt(0)) {
+                    collectFuzzy(root.children[i], root.keys[i], 1, folded, rows, distance, matches, needed);
+                }
+            }
+            for (int i = 0; i < matches.size() && results.size() < limit; i++) {
+                results.add(matches.get(i));
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    // Walks the trie carrying one Levenshtein row per depth, pruning subtrees that can no longer
+    // come within the distance, and collects names at exactly that distance
+    private void collectFuzzy(TrieNode node, char key, int depth, String term, int[][] rows, int distance,
+                              List<Integer> matches, int needed) {
+        if (depth >= rows.length) {
+            return;
+        }
+        int[] previousRow = rows[depth - 1];
+        int[] row = rows[depth];
+        row[0] = previousRow[0] + 1;
+        int rowMinimum = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitution = previousRow[i - 1] + (term.charAt(i - 1) == key ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1] + 1, previousRow[i] + 1));
+            rowMinimum = Math.min(rowMinimum, row[i]);
+        }
+
+        if (row[row.length - 1] == distance) {
+            for (int i = 0; i < node.rollNumberCount && matches.size() < needed; i++) {
+                matches.add(node.rollNumbers[i]);
+            }
+        }
+        if (rowMinimum <= distance) {
+            for (int i = 0; i < node.childCount && matches.size() < needed; i++) {
+                collectFuzzy(node.children[i], node.keys[i], depth + 1, term, rows, distance, matches, needed);
+            }
+        }
+    }
+
+    private static class TrieNode {
+        private char[] keys = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private int childCount;
+        private int[] rollNumbers = new int[0];
+        private int rollNumberCount;
+
+        private TrieNode child(char key) {
+            for (int i = 0; i < childCount; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private TrieNode childOrCreate(char key) {
+            TrieNode child = child(key);
+            if (child == null) {
+                if (childCount == keys.length) {
+                    int capacity = Math.max(2, childCount * 2);
+                    keys = java.util.Arrays.copyOf(keys, capacity);
+                    children = java.util.Arrays.copyOf(children, capacity);
+                }
+                child = new TrieNode();
+                keys[childCount] = key;
+                children[childCount] = child;
+                childCount++;
+            }
+            return child;
+        }
+
+        private void addRollNumber(int rollNumber) {
+            if (rollNumberCount == rollNumbers.length) {
+                rollNumbers = java.util.Arrays.copyOf(rollNumbers, Math.max(1, rollNumberCount * 2));
+            }
+            rollNumbers[rollNumberCount++] = rollNumber;
+        }
+
+        private void removeRollNumber(int rollNumber) {
+            for (int i = 0; i < rollNumberCount; i++) {
+                if (rollNumbers[i] == rollNumber) {
+                    rollNumbers[i] = rollNumbers[--rollNumberCount];
+                    return;
+                }
+            }
+        }
+
+        private void clear() {
+            keys = new char[0];
+            children = new TrieNode[0];
+            childCount = 0;
+            rollNumbers = new int[0];
+            rollNumberCount = 0;
+        }
+    }
+}
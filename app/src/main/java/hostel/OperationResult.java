@@ -0,0 +1,39 @@
+package hostel;
+
+// Outcome of a service operation and the message to report for it
+class OperationResult {
+    private final boolean success;
+    private final boolean error;
+    private final String message;
+
+    private OperationResult(boolean success, boolean error, String message) {
+        this.success = success;
+        this.error = error;
+        this.message = message;
+    }
+
+    public static OperationResult success(String message) {
+        return new OperationResult(true, false, message);
+    }
+
+    public static OperationResult failure(String message) {
+        return new OperationResult(false, false, message);
+    }
+
+    // A failure of the system rather than of the request, such as a journal that can no longer be written
+    public static OperationResult error(String message) {
+        return new OperationResult(false, true, message);
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public boolean isError() {
+        return error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,77 @@
+package hostel;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Rendered room and department tables, kept until the version of what they show moves on.
+// A rendering is stored with the version read before it started, so a change racing with it
+// only leaves it stale for the next display rather than cached for good.
+class RenderedViews {
+    interface Renderer<T> {
+        void render(StringBuilder builder, T subject);
+    }
+
+    private static final class Rendering {
+        final Object subject;
+        final long version;
+        final String text;
+
+        Rendering(Object subject, long version, String text) {
+            this.subject = subject;
+            this.version = version;
+            this.text = text;
+        }
+    }
+
+    private final ConcurrentHashMap<Integer, Rendering> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong[] departmentVersions = new AtomicLong[Department.values().length];
+    private final AtomicReferenceArray<Rendering> departments = new AtomicReferenceArray<>(Department.values().length);
+
+    public RenderedViews() {
+        for (int i = 0; i < departmentVersions.length; i++) {
+            departmentVersions[i] = new AtomicLong();
+        }
+    }
+
+    // Rooms carry their own version; the room itself is kept so a room recreated under the same number is re-rendered
+    public String room(Room room, Renderer<Room> renderer) {
+        long version = room.getVersion();
+        Rendering rendering = rooms.get(room.getRoomNumber());
+        if (rendering != null && rendering.subject == room && rendering.version == version) {
+            return rendering.text;
+        }
+        String text = render(room, renderer);
+        rooms.put(room.getRoomNumber(), new Rendering(room, version, text));
+        return text;
+    }
+
+    public String department(Department department, Renderer<Department> renderer) {
+        long version = departmentVersions[department.ordinal()].get();
+        Rendering rendering = departments.get(department.ordinal());
+        if (rendering != null && rendering.version == version) {
+            return rendering.text;
+        }
+        String text = render(department, renderer);
+        departments.set(department.ordinal(), new Rendering(department, version, text));
+        return text;
+    }
+
+    // Called after a student joins, leaves or changes a row of the department
+    public void departmentChanged(Department department) {
+        departmentVersions[department.ordinal()].incrementAndGet();
+    }
+
+    public void clear() {
+        rooms.clear();
+        for (AtomicLong version : departmentVersions) {
+            version.incrementAndGet();
+        }
+    }
+
+    private static <T> String render(T subject, Renderer<T> renderer) {
+        StringBuilder builder = new StringBuilder(512);
+        renderer.render(builder, subject);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package hostel;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Occupants are a copy-on-write list, so they can be read without the room's lock
+class Room {
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private final int roomNumber;
+    private final List<Student> students;
+    private volatile int capacity;
+    // Bumped on every change to what the room's view shows
+    private final AtomicLong version = new AtomicLong();
+
+    public Room(int roomNumber) {
+        this(roomNumber, DEFAULT_CAPACITY);
+    }
+
+    public Room(int roomNumber, int capacity) {
+        this.roomNumber = roomNumber;
+        this.students = new CopyOnWriteArrayList<>();
+        this.capacity = capacity;
+    }
+
+    public int getRoomNumber() {
+        return roomNumber;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Callers go through RoomRegistry.setCapacity so the free-bed sets follow the change
+    void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    // Called after the occupants or one of their rows change
+    public void changed() {
+        version.incrementAndGet();
+    }
+
+    public int getFreeBeds() {
+        return Math.max(capacity - students.size(), 0);
+    }
+
+    public boolean isFull() {
+        return students.size() >= capacity;
+    }
+
+    public boolean isEmpty() {
+        return students.isEmpty();
+    }
+
+    // Returns the department shared by every student in the room, or null if the room is empty or mixed
+    public Department getDepartment() {
+        Department department = null;
+        for (Student student : students) {
+            if (department == null) {
+                department = student.getDepartment();
+            } else if (department != student.getDepartment()) {
+                return null;
+            }
+        }
+        return department;
+    }
+
+    public boolean addStudent(Student student) {
+        if (!isFull()) {
+            students.add(student);
+            return true;
+        }
+        return false;
+    }
+
+    public void removeStudent(Student student) {
+        students.remove(student);
+    }
+
+    public boolean containsStudent(int rollNumber) {
+        for (Student student : students) {
+            if (student.getRollNumber() == rollNumber) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Student getStudentByRollNumber(int rollNumber) {
+        for (Student student : students) {
+            if (student.getRollNumber() == rollNumber) {
+                return student;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Room Number: ").append(roomNumber).append("\n");
+
+        if (students.isEmpty()) {
+            builder.append("No students in the room.");
+        } else {
+            builder.append("Students in the room:\n");
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            builder.append("| Name                 | Roll Number | Department           | Present  |\n");
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+            for (Student student : students) {
+                student.appendRow(builder).append("\n");
+            }
+            builder.append("+----------------------+------------+----------------------+----------+\n");
+        }
+
+        return builder.toString();
+    }
+}
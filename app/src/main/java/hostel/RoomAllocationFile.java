@@ -0,0 +1,244 @@
+package hostel;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Room membership in a memory-mapped file of fixed-size slots, one per room:
+// [room number][capacity][beds] followed by that many roll numbers, EMPTY_BED where a bed is free.
+// A slot is sized when its room is created and only moves if the room grows past it, so taking or
+// freeing a bed is a single in-place int write. Loading is one sequential scan of the slots.
+// The journal does not cover these writes, so the system forces the mapping before it reports a
+// change as done, just as it waits for the journal's fsync.
+class RoomAllocationFile {
+    public static final String FILE_NAME = "room_allocations.dat";
+    private static final int MAGIC = 0x484D5352;
+    private static final int VERSION = 1;
+    // Magic, version and the offset just past the last slot
+    private static final int HEADER_BYTES = 12;
+    private static final int END_OFFSET = 8;
+    private static final int SLOT_HEADER_BYTES = 12;
+    private static final int EMPTY_BED = -1;
+    // Capacity of a slot whose room has moved to a larger one
+    private static final int RETIRED = 0;
+    private static final int INITIAL_BYTES = 1 << 20;
+
+    interface SlotVisitor {
+        void visit(int roomNumber, int capacity, int[] rollNumbers, int count);
+    }
+
+    private final File file;
+    private final HostelMetrics metrics;
+    private final ConcurrentHashMap<Integer, Integer> slotOffsets = new ConcurrentHashMap<>();
+    // Bed writes share the read lock; growing the file replaces the mapping under the write lock
+    private final ReentrantReadWriteLock mappingLock = new ReentrantReadWriteLock();
+    private final Object slotLock = new Object();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public RoomAllocationFile(File directory, HostelMetrics metrics) {
+        this.file = new File(directory, FILE_NAME);
+        this.metrics = metrics;
+    }
+
+    public boolean exists() {
+        return file.length() >= HEADER_BYTES;
+    }
+
+    // Maps the file, creating it if needed, and passes every live slot to the visitor in file order
+    public void open(SlotVisitor visitor) throws IOException {
+        boolean existed = exists();
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_BYTES));
+        if (!existed) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(END_OFFSET, HEADER_BYTES);
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported room allocation file.");
+        }
+
+        // A room can have two live slots only if a move was cut short; the later one wins
+        int end = buffer.getInt(END_OFFSET);
+        metrics.addBytesRead(end);
+        List<Integer> order = new ArrayList<>();
+        for (int offset = HEADER_BYTES; offset < end; offset += SLOT_HEADER_BYTES + buffer.getInt(offset + 8) * 4) {
+            if (buffer.getInt(offset + 4) != RETIRED) {
+                Integer previous = slotOffsets.put(buffer.getInt(offset), offset);
+                if (previous != null) {
+                    order.remove(previous);
+                }
+                order.add(offset);
+            }
+        }
+        int[] rollNumbers = new int[0];
+        for (int offset : order) {
+            int beds = buffer.getInt(offset + 8);
+            if (rollNumbers.length < beds) {
+                rollNumbers = new int[beds];
+            }
+            int count = 0;
+            for (int bed = 0; bed < beds; bed++) {
+                int rollNumber = buffer.getInt(offset + SLOT_HEADER_BYTES + bed * 4);
+                if (rollNumber != EMPTY_BED) {
+                    rollNumbers[count++] = rollNumber;
+                }
+            }
+            visitor.visit(buffer.getInt(offset), buffer.getInt(offset + 4), rollNumbers, count);
+        }
+    }
+
+    // Callers hold the room's lock for this and every other per-room change
+    public void roomCreated(int roomNumber, int capacity) {
+        slotOffsets.put(roomNumber, appendSlot(roomNumber, capacity, Math.max(capacity, Room.DEFAULT_CAPACITY), null));
+    }
+
+    public void bedTaken(int roomNumber, int rollNumber) {
+        replaceBed(roomNumber, EMPTY_BED, rollNumber);
+    }
+
+    public void bedFreed(int roomNumber, int rollNumber) {
+        replaceBed(roomNumber, rollNumber, EMPTY_BED);
+    }
+
+    // Rewrites the capacity in place, or moves the room to a larger slot if it has outgrown its own
+    public void capacityChanged(Room room) {
+        Integer offset = slotOffsets.get(room.getRoomNumber());
+        if (offset == null) {
+            return;
+        }
+        mappingLock.readLock().lock();
+        try {
+            if (room.getCapacity() <= buffer.getInt(offset + 8)) {
+                buffer.putInt(offset + 4, room.getCapacity());
+                metrics.addBytesWritten(4);
+                return;
+            }
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+
+        int moved = appendSlot(room.getRoomNumber(), room.getCapacity(), room.getCapacity(), room.getStudents());
+        slotOffsets.put(room.getRoomNumber(), moved);
+        mappingLock.readLock().lock();
+        try {
+            buffer.putInt(offset + 4, RETIRED);
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+    }
+
+    // Forgets every room; the slots are overwritten as rooms are created again
+    public void clear() {
+        synchronized (slotLock) {
+            mappingLock.readLock().lock();
+            try {
+                buffer.putInt(END_OFFSET, HEADER_BYTES);
+            } finally {
+                mappingLock.readLock().unlock();
+            }
+            slotOffsets.clear();
+        }
+    }
+
+    public void force() {
+        mappingLock.readLock().lock();
+        try {
+            if (buffer != null) {
+                buffer.force();
+            }
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+    }
+
+    public void close() {
+        force();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error occurred while closing the room allocation file.");
+        }
+    }
+
+    private void replaceBed(int roomNumber, int expected, int replacement) {
+        Integer offset = slotOffsets.get(roomNumber);
+        if (offset == null) {
+            return;
+        }
+        mappingLock.readLock().lock();
+        try {
+            int beds = buffer.getInt(offset + 8);
+            for (int bed = 0; bed < beds; bed++) {
+                int position = offset + SLOT_HEADER_BYTES + bed * 4;
+                if (buffer.getInt(position) == expected) {
+                    buffer.putInt(position, replacement);
+                    metrics.addBytesWritten(4);
+                    return;
+                }
+            }
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+    }
+
+    // Writes a slot past the last one, growing the mapping if it does not fit, and returns its offset
+    private int appendSlot(int roomNumber, int capacity, int beds, List<Student> occupants) {
+        int size = SLOT_HEADER_BYTES + beds * 4;
+        synchronized (slotLock) {
+            int offset = buffer.getInt(END_OFFSET);
+            if ((long) offset + size > buffer.capacity()) {
+                grow((long) offset + size);
+            }
+            mappingLock.readLock().lock();
+            try {
+                buffer.putInt(offset, roomNumber);
+                buffer.putInt(offset + 4, capacity);
+                buffer.putInt(offset + 8, beds);
+                int bed = 0;
+                if (occupants != null) {
+                    for (Student student : occupants) {
+                        buffer.putInt(offset + SLOT_HEADER_BYTES + bed++ * 4, student.getRollNumber());
+                    }
+                }
+                for (; bed < beds; bed++) {
+                    buffer.putInt(offset + SLOT_HEADER_BYTES + bed * 4, EMPTY_BED);
+                }
+                // Published last, so a slot is only ever scanned once it is complete
+                buffer.putInt(END_OFFSET, offset + size);
+            } finally {
+                mappingLock.readLock().unlock();
+            }
+            metrics.addBytesWritten(size);
+            return offset;
+        }
+    }
+
+    private void grow(long needed) {
+        mappingLock.writeLock().lock();
+        try {
+            long size = buffer.capacity();
+            while (size < needed) {
+                size *= 2;
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Room allocation file is full.");
+            }
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package hostel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Rooms keyed by number, plus ordered sets of the rooms that still have free beds.
+// Non-full rooms are tracked overall, per department (rooms holding only that department)
+// and as empty rooms, so the lowest free room for a request is a single ordered-set lookup.
+// Also maps each allocated roll number back to its room.
+// Safe for concurrent use: every change to a room happens under that room's lock, taken from a
+// fixed set of striped locks, and a student is claimed for a room with a putIfAbsent on the
+// roll number map, so a room is never overbooked and a student never lands in two rooms.
+// Lookups and free-room searches take no lock; a free room found without the lock is only a
+// candidate and must be checked again under its lock.
+class RoomRegistry {
+    private static final int LOCK_STRIPES = 64;
+
+    private final Queue<Room> rooms = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Integer, Room> roomsByNumber = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Room> roomsByRollNumber = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Integer> freeRooms = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Integer> emptyRooms = new ConcurrentSkipListSet<>();
+    private final EnumMap<Department, ConcurrentSkipListSet<Integer>> freeRoomsByDepartment = new EnumMap<>(Department.class);
+    private final AtomicInteger highestRoomNumber = new AtomicInteger(Integer.MIN_VALUE);
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    // Written through on every change once set
+    private volatile RoomAllocationFile allocationFile;
+    private final HostelAggregates aggregates;
+
+    public RoomRegistry(HostelAggregates aggregates) {
+        this.aggregates = aggregates;
+        for (Department department : Department.values()) {
+            freeRoomsByDepartment.put(department, new ConcurrentSkipListSet<>());
+        }
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public void setAllocationFile(RoomAllocationFile allocationFile) {
+        this.allocationFile = allocationFile;
+    }
+
+    // Rooms in the order they were created
+    public Collection<Room> getRooms() {
+        return rooms;
+    }
+
+    public Room getRoom(int roomNumber) {
+        return roomsByNumber.get(roomNumber);
+    }
+
+    public Room getOrCreateRoom(int roomNumber) {
+        Room room = roomsByNumber.get(roomNumber);
+        if (room != null) {
+            return room;
+        }
+        Room created = new Room(roomNumber);
+        room = roomsByNumber.putIfAbsent(roomNumber, created);
+        if (room != null) {
+            return room;
+        }
+        rooms.add(created);
+        highestRoomNumber.accumulateAndGet(roomNumber, Math::max);
+        ReentrantLock lock = lockFor(roomNumber);
+        lock.lock();
+        try {
+            if (allocationFile != null) {
+                allocationFile.roomCreated(roomNumber, created.getCapacity());
+            }
+            aggregates.roomAdded(created.getCapacity());
+            roomChanged(created);
+        } finally {
+            lock.unlock();
+        }
+        return created;
+    }
+
+    public Room getRoomOfStudent(int rollNumber) {
+        return roomsByRollNumber.get(rollNumber);
+    }
+
+    // Fails if the room already holds more students than the new capacity
+    public boolean setCapacity(Room room, int capacity) {
+        ReentrantLock lock = lockFor(room.getRoomNumber());
+        lock.lock();
+        try {
+            if (capacity < 1 || capacity < room.getStudents().size()) {
+                return false;
+            }
+            aggregates.capacityChanged(room.getCapacity(), capacity);
+            room.setCapacity(capacity);
+            if (allocationFile != null) {
+                allocationFile.capacityChanged(room);
+            }
+            roomChanged(room);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The lock guarding the room. Callers that must keep a check and its change together, or keep
+    // the order of changes to a room in step with the journal, hold it around both.
+    public ReentrantLock lockFor(int roomNumber) {
+        int h = roomNumber * 0x9E3779B9;
+        return locks[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    // Fails if the room is full or the student is already in a room
+    public boolean allocate(Room room, Student student) {
+        ReentrantLock lock = lockFor(room.getRoomNumber());
+        lock.lock();
+        try {
+            if (room.isFull() || roomsByRollNumber.putIfAbsent(student.getRollNumber(), room) != null) {
+                return false;
+            }
+            room.addStudent(student);
+            if (allocationFile != null) {
+                allocationFile.bedTaken(room.getRoomNumber(), student.getRollNumber());
+            }
+            aggregates.studentAllocated(student.getDepartment());
+            roomChanged(room);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Allocates students to the room in order until it is full, skipping any already in a room,
+    // and returns those that were allocated. The room is reclassified once rather than per student.
+    public List<Student> allocateAll(Room room, List<Student> students) {
+        List<Student> allocated = new ArrayList<>(students.size());
+        ReentrantLock lock = lockFor(room.getRoomNumber());
+        lock.lock();
+        try {
+            for (Student student : students) {
+                if (room.getStudents().size() + allocated.size() >= room.getCapacity()) {
+                    break;
+                }
+                if (roomsByRollNumber.putIfAbsent(student.getRollNumber(), room) == null) {
+                    allocated.add(student);
+                }
+            }
+            room.getStudents().addAll(allocated);
+            for (Student student : allocated) {
+                if (allocationFile != null) {
+                    allocationFile.bedTaken(room.getRoomNumber(), student.getRollNumber());
+                }
+                aggregates.studentAllocated(student.getDepartment());
+            }
+            roomChanged(room);
+            return allocated;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes the student from whichever room holds them and returns that room, or null if unallocated
+    public Room deallocate(int rollNumber) {
+        while (true) {
+            Room room = roomsByRollNumber.get(rollNumber);
+            if (room == null) {
+                return null;
+            }
+            ReentrantLock lock = lockFor(room.getRoomNumber());
+            lock.lock();
+            try {
+                // Retry if the student moved before the lock was taken
+                if (roomsByRollNumber.remove(rollNumber, room)) {
+                    Student student = room.getStudentByRollNumber(rollNumber);
+                    room.removeStudent(student);
+                    aggregates.studentDeallocated(student.getDepartment());
+                    if (allocationFile != null) {
+                        allocationFile.bedFreed(room.getRoomNumber(), rollNumber);
+                    }
+                    roomChanged(room);
+                    return room;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Must be called after a student's details change so their room is reclassified
+    public void studentChanged(Student student) {
+        Room room = roomsByRollNumber.get(student.getRollNumber());
+        if (room != null) {
+            ReentrantLock lock = lockFor(room.getRoomNumber());
+            lock.lock();
+            try {
+                roomChanged(room);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Must be called, holding the room's lock, after the occupants of a room change so the free-bed sets stay accurate
+    private void roomChanged(Room room) {
+        room.changed();
+        Integer roomNumber = room.getRoomNumber();
+        boolean wasFree = freeRooms.remove(roomNumber);
+        boolean wasEmpty = emptyRooms.remove(roomNumber);
+        for (ConcurrentSkipListSet<Integer> departmentRooms : freeRoomsByDepartment.values()) {
+            departmentRooms.remove(roomNumber);
+        }
+
+        boolean isFree = !room.isFull();
+        boolean isEmpty = isFree && room.isEmpty();
+        aggregates.roomClassified(wasFree, wasEmpty, isFree, isEmpty);
+        if (!isFree) {
+            return;
+        }
+        freeRooms.add(roomNumber);
+        if (isEmpty) {
+            emptyRooms.add(roomNumber);
+            return;
+        }
+        Department department = room.getDepartment();
+        if (department != null) {
+            freeRoomsByDepartment.get(department).add(roomNumber);
+        }
+    }
+
+    // Lowest-numbered room with a free bed, or null if every room is full
+    public Room findFirstFreeRoom() {
+        Integer roomNumber = firstOrNull(freeRooms);
+        return roomNumber == null ? null : roomsByNumber.get(roomNumber);
+    }
+
+    // Lowest-numbered room with a free bed that is empty or holds only the given department
+    public Room findFirstFreeRoom(Department department) {
+        Integer candidate = null;
+        for (Integer roomNumber : freeRoomsByDepartment.get(department)) {
+            Room room = roomsByNumber.get(roomNumber);
+            // Occupants may have changed department since the room was classified
+            if (room != null && room.getDepartment() == department) {
+                candidate = roomNumber;
+                break;
+            }
+            if (room != null) {
+                ReentrantLock lock = lockFor(roomNumber);
+                lock.lock();
+                try {
+                    roomChanged(room);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        Integer empty = firstOrNull(emptyRooms);
+        if (empty != null && (candidate == null || empty < candidate)) {
+            candidate = empty;
+        }
+        return candidate == null ? null : roomsByNumber.get(candidate);
+    }
+
+    public int nextRoomNumber() {
+        return roomsByNumber.isEmpty() ? 1 : highestRoomNumber.get() + 1;
+    }
+
+    // Not safe against concurrent allocations; callers keep every other operation out while clearing
+    public void clear() {
+        rooms.clear();
+        roomsByNumber.clear();
+        roomsByRollNumber.clear();
+        freeRooms.clear();
+        emptyRooms.clear();
+        for (ConcurrentSkipListSet<Integer> departmentRooms : freeRoomsByDepartment.values()) {
+            departmentRooms.clear();
+        }
+        highestRoomNumber.set(Integer.MIN_VALUE);
+        aggregates.clearRooms();
+        if (allocationFile != null) {
+            allocationFile.clear();
+        }
+    }
+
+    private static Integer firstOrNull(ConcurrentSkipListSet<Integer> set) {
+        // first() throws if another thread empties the set after an isEmpty check
+        Iterator<Integer> iterator = set.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
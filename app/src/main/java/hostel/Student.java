@@ -0,0 +1,173 @@
+package hostel;
+
+class Student {
+    private volatile String name;
+    private int rollNumber;
+    private volatile Department department;
+    private volatile boolean present;
+    // Snapshot the student was loaded from; the name is decoded from it on first use
+    private StudentSnapshot source;
+    private int sourcePosition;
+    // Set when this object is a view over a columnar store slot; the fields above are then unused
+    private ColumnarStudentStore store;
+    private int slot;
+    // Set when this object is a view over a row of a disk store, found by its roll number
+    private DiskStudentStore disk;
+
+    public Student(String name, int rollNumber, Department department) {
+        this.name = name;
+        this.rollNumber = rollNumber;
+        this.department = department;
+        this.present = true; 
+    }
+
+    public Student(StudentSnapshot source, int sourcePosition) {
+        this.rollNumber = source.getRollNumber(sourcePosition);
+        this.department = source.getDepartment(sourcePosition);
+        this.present = source.isPresent(sourcePosition);
+        this.source = source;
+        this.sourcePosition = sourcePosition;
+    }
+
+    Student(ColumnarStudentStore store, int slot) {
+        this.rollNumber = store.getRollNumber(slot);
+        this.store = store;
+        this.slot = slot;
+    }
+
+    Student(DiskStudentStore disk, int rollNumber) {
+        this.rollNumber = rollNumber;
+        this.disk = disk;
+    }
+
+    public String getName() {
+        if (store != null) {
+            return store.getName(slot);
+        }
+        if (disk != null) {
+            return disk.getName(rollNumber);
+        }
+        if (name == null && source != null) {
+            name = source.getName(sourcePosition);
+        }
+        return name;
+    }
+
+    // Where the name's UTF-8 bytes can be copied from without decoding them: the name itself,
+    // the StudentSnapshot it has not been decoded from yet, or a columnar store's name arena
+    Object getNameSource() {
+        if (store != null) {
+            return store.getNameArena();
+        }
+        if (disk != null) {
+            return getName();
+        }
+        return name != null ? name : source;
+    }
+
+    int getNameSourcePosition() {
+        return store != null ? store.getNameOffset(slot) : sourcePosition;
+    }
+
+    int getNameSourceLength() {
+        return store != null ? store.getNameLength(slot) : -1;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    public int getRollNumber() {
+        return rollNumber;
+    }
+
+    public Department getDepartment() {
+        if (disk != null) {
+            return disk.getDepartment(rollNumber);
+        }
+        return store != null ? store.getDepartment(slot) : department;
+    }
+
+    public boolean isPresent() {
+        if (disk != null) {
+            return disk.isPresent(rollNumber);
+        }
+        return store != null ? store.isPresent(slot) : present;
+    }
+
+    public void setPresent(boolean present) {
+        if (store != null) {
+            store.setPresent(slot, present);
+        } else if (disk != null) {
+            disk.setPresent(rollNumber, present);
+        } else {
+            this.present = present;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return appendRow(new StringBuilder(72)).toString();
+    }
+
+    // The toString row, padded by hand instead of through String.format
+    public StringBuilder appendRow(StringBuilder builder) {
+        builder.append("| ");
+        int start = builder.length();
+        padTo(builder.append(getName()), start, 20).append(" | ");
+        start = builder.length();
+        padTo(builder.append(getRollNumber()), start, 10).append(" | ");
+        start = builder.length();
+        padTo(builder.append(getDepartment()), start, 20).append(" | ");
+        start = builder.length();
+        return padTo(builder.append(isPresent() ? "Present" : "Absent"), start, 8).append(" |");
+    }
+
+    static StringBuilder padTo(StringBuilder builder, int start, int width) {
+        for (int i = builder.length() - start; i < width; i++) {
+            builder.append(' ');
+        }
+        return builder;
+    }
+
+    // Views over the same store slot or disk row are the same student; other students compare by identity
+    @Override
+    public boolean equals(Object other) {
+        if ((store == null && disk == null) || !(other instanceof Student)) {
+            return this == other;
+        }
+        Student student = (Student) other;
+        if (disk != null) {
+            return student.disk == disk && student.rollNumber == rollNumber;
+        }
+        return student.store == store && student.slot == slot;
+    }
+
+    @Override
+    public int hashCode() {
+        if (disk != null) {
+            return rollNumber;
+        }
+        return store != null ? slot : System.identityHashCode(this);
+    }
+
+    public void setName(String name) {
+        if (store != null) {
+            store.setName(slot, name);
+        } else if (disk != null) {
+            disk.setName(rollNumber, name);
+        } else {
+            this.name = name;
+        }
+    }
+
+    public void setDepartment(Department department) {
+        if (store != null) {
+            store.setDepartment(slot, department);
+        } else if (disk != null) {
+            disk.setDepartment(rollNumber, department);
+        } else {
+            this.department = department;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package hostel;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+// Streams students to CSV or JSON Lines through one reusable direct buffer. Text is encoded by
+// hand, so a row costs no allocation beyond what the store needs to hand out the student.
+class StudentExporter {
+    enum Format {
+        CSV,
+        JSONL;
+
+        // Returns null if the text names no format
+        public static Format parse(String text) {
+            if (text == null) {
+                return null;
+            }
+            try {
+                return valueOf(text.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    private static final int BUFFER_SIZE = 1 << 18;
+    private static final byte[][] DEPARTMENT_NAMES = new byte[Department.values().length][];
+
+    static {
+        for (Department department : Department.values()) {
+            DEPARTMENT_NAMES[department.ordinal()] = department.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final Format format;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final byte[] digits = new byte[11];
+    private int count;
+
+    public StudentExporter(WritableByteChannel channel, Format format) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        if (format == Format.CSV) {
+            putAscii("rollNumber,name,department,present,room\n");
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    // A room number of -1 means the student is not allocated
+    public void write(Student student, int roomNumber) throws IOException {
+        if (format == Format.CSV) {
+            putInt(student.getRollNumber());
+            put((byte) ',');
+            putCsv(student.getName());
+            put((byte) ',');
+            putBytes(DEPARTMENT_NAMES[student.getDepartment().ordinal()]);
+            putAscii(student.isPresent() ? ",true," : ",false,");
+            if (roomNumber != -1) {
+                putInt(roomNumber);
+            }
+        } else {
+            putAscii("{\"rollNumber\":");
+            putInt(student.getRollNumber());
+            putAscii(",\"name\":");
+            putJson(student.getName());
+            putAscii(",\"department\":\"");
+            putBytes(DEPARTMENT_NAMES[student.getDepartment().ordinal()]);
+            putAscii(student.isPresent() ? "\",\"present\":true,\"room\":" : "\",\"present\":false,\"room\":");
+            if (roomNumber != -1) {
+                putInt(roomNumber);
+            } else {
+                putAscii("null");
+            }
+            put((byte) '}');
+        }
+        put((byte) '\n');
+        count++;
+    }
+
+    // Writes out whatever is still buffered
+    public void finish() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putCsv(String value) throws IOException {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            putText(value);
+            return;
+        }
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                put((byte) '"');
+            }
+            putChar(value, i);
+            if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                i++;
+            }
+        }
+        put((byte) '"');
+    }
+
+    // Same escaping as Json.quote
+    private void putJson(String value) throws IOException {
+        put((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    putAscii("\\\"");
+                    break;
+                case '\\':
+                    putAscii("\\\\");
+                    break;
+                case '\n':
+                    putAscii("\\n");
+                    break;
+                case '\r':
+                    putAscii("\\r");
+                    break;
+                case '\t':
+                    putAscii("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        putAscii("\\u00");
+                        put((byte) Character.forDigit(c >> 4, 16));
+                        put((byte) Character.forDigit(c & 0xF, 16));
+                    } else {
+                        putChar(value, i);
+                        if (Character.isHighSurrogate(c) && i + 1 < value.length()) {
+                            i++;
+                        }
+                    }
+            }
+        }
+        put((byte) '"');
+    }
+
+    private void putText(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            putChar(value, i);
+            if (Character.isHighSurrogate(value.charAt(i)) && i + 1 < value.length()) {
+                i++;
+            }
+        }
+    }
+
+    // UTF-8 encodes the character at the index, together with its low surrogate if it has one
+    private void putChar(String value, int index) throws IOException {
+        int codePoint = value.codePointAt(index);
+        if (codePoint < 0x80) {
+            put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            put((byte) (0xC0 | codePoint >> 6));
+            put((byte) (0x80 | codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            put((byte) (0xE0 | codePoint >> 12));
+            put((byte) (0x80 | codePoint >> 6 & 0x3F));
+            put((byte) (0x80 | codePoint & 0x3F));
+        } else {
+            put((byte) (0xF0 | codePoint >> 18));
+            put((byte) (0x80 | codePoint >> 12 & 0x3F));
+            put((byte) (0x80 | codePoint >> 6 & 0x3F));
+            put((byte) (0x80 | codePoint & 0x3F));
+        }
+    }
+
+    private void putInt(int value) throws IOException {
+        long remaining = value;
+        if (remaining < 0) {
+            put((byte) '-');
+            remaining = -remaining;
+        }
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        while (length > 0) {
+            put(digits[--length]);
+        }
+    }
+
+    private void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            put((byte) text.charAt(i));
+        }
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            put(b);
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            finish();
+        }
+        buffer.put(b);
+    }
+}
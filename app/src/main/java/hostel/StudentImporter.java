@@ -0,0 +1,193 @@
+package hostel;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Parses student_data.txt-style CSV (name,roll number,department) in parallel.
+// The file is split into chunks that are memory-mapped and parsed straight from bytes;
+// a chunk owns every line that starts inside it. Bad rows are reported with their
+// line number instead of aborting the import.
+class StudentImporter {
+    private static final int CHUNK_BYTES = 8 << 20;
+    private static final int MAX_LINE_BYTES = 64 << 10;
+    private static final byte[][] DEPARTMENT_NAMES = new byte[Department.values().length][];
+
+    static {
+        for (Department department : Department.values()) {
+            DEPARTMENT_NAMES[department.ordinal()] = department.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int chunkBytes;
+
+    public StudentImporter() {
+        this(CHUNK_BYTES);
+    }
+
+    // Smaller chunks put more lines across chunk edges
+    StudentImporter(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    public ImportResult importFile(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunkCount = (int) Math.max(1, (size + chunkBytes - 1) / chunkBytes);
+
+            List<ChunkResult> chunks;
+            try {
+                chunks = IntStream.range(0, chunkCount).parallel()
+                        .mapToObj(chunk -> parseChunk(channel, size, (long) chunk * chunkBytes, Math.min(size, (long) (chunk + 1) * chunkBytes)))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Chunk line numbers are local; offset them by the lines in the chunks before
+            ImportResult result = new ImportResult();
+            int firstLine = 1;
+            for (ChunkResult chunk : chunks) {
+                result.getStudents().addAll(chunk.students);
+                for (int i = 0; i < chunk.errorLines.size(); i++) {
+                    result.getErrors().add("Line " + (firstLine + chunk.errorLines.get(i)) + ": " + chunk.errorMessages.get(i));
+                }
+                firstLine += chunk.lineCount;
+            }
+            return result;
+        }
+    }
+
+    private ChunkResult parseChunk(FileChannel channel, long fileSize, long start, long end) {
+        ChunkResult result = new ChunkResult();
+        if (start >= end) {
+            return result;
+        }
+
+        // Map one byte before the chunk to tell whether it starts mid-line, and enough after it to finish the last line
+        long mapStart = start == 0 ? 0 : start - 1;
+        long mapEnd = Math.min(fileSize, end + MAX_LINE_BYTES);
+        MappedByteBuffer buffer;
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        int limit = buffer.limit();
+        int ownedEnd = (int) (end - mapStart);
+        int position = 0;
+        if (start > 0) {
+            while (position < limit && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        while (position < ownedEnd && position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && mapEnd < fileSize) {
+                result.error("Line is longer than " + MAX_LINE_BYTES + " bytes.");
+                break;
+            }
+            int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > position) {
+                parseLine(buffer, position, contentEnd, result);
+            }
+            result.lineCount++;
+            position = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private void parseLine(MappedByteBuffer buffer, int start, int end, ChunkResult result) {
+        int firstComma = indexOf(buffer, start, end, (byte) ',');
+        int secondComma = firstComma < 0 ? -1 : indexOf(buffer, firstComma + 1, end, (byte) ',');
+        if (secondComma < 0 || indexOf(buffer, secondComma + 1, end, (byte) ',') >= 0) {
+            result.error("Expected name, roll number and department.");
+            return;
+        }
+
+        if (firstComma == start) {
+            result.error("Name is empty.");
+            return;
+        }
+
+        int rollNumber = 0;
+        if (secondComma - firstComma - 1 != 5) {
+            result.error("Invalid roll number. Roll number must be 5 digits.");
+            return;
+        }
+        for (int i = firstComma + 1; i < secondComma; i++) {
+            byte digit = buffer.get(i);
+            if (digit < '0' || digit > '9') {
+                result.error("Invalid roll number. Roll number must be 5 digits.");
+                return;
+            }
+            rollNumber = rollNumber * 10 + (digit - '0');
+        }
+
+        Department department = matchDepartment(buffer, secondComma + 1, end);
+        if (department == null) {
+            result.error("Invalid department. Expected one of AIE, CSE or CYS.");
+            return;
+        }
+
+        byte[] name = new byte[firstComma - start];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = buffer.get(start + i);
+        }
+        result.students.add(new Student(new String(name, StandardCharsets.UTF_8), rollNumber, department));
+    }
+
+    private static Department matchDepartment(MappedByteBuffer buffer, int start, int end) {
+        for (Department department : Department.values()) {
+            byte[] expected = DEPARTMENT_NAMES[department.ordinal()];
+            if (end - start != expected.length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < expected.length && matches; i++) {
+                byte actual = buffer.get(start + i);
+                if (actual >= 'a' && actual <= 'z') {
+                    actual -= 'a' - 'A';
+                }
+                matches = actual == expected[i];
+            }
+            if (matches) {
+                return department;
+            }
+        }
+        return null;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static class ChunkResult {
+        private final List<Student> students = new ArrayList<>();
+        private final List<Integer> errorLines = new ArrayList<>();
+        private final List<String> errorMessages = new ArrayList<>();
+        private int lineCount;
+
+        private void error(String message) {
+            errorLines.add(lineCount);
+            errorMessages.add(message);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package hostel;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+// Read side of the binary snapshot, memory-mapped so a cold start only touches the pages it reads.
+// Layout (version 3): a fixed header, then columns of roll numbers, name offsets, department
+// ordinals, a presence bitmap, room numbers, room capacities, room member offsets and member roll
+// numbers, the few departments that are not a Department value, and finally a UTF-8 blob of all
+// names. Version 2 is the same without room capacities, which then default to Room.DEFAULT_CAPACITY.
+// Version 1 files hold journal records instead and are replayed as such.
+class StudentSnapshot {
+    public static final int MAGIC = 0x484D534A;
+    public static final int VERSION = 3;
+    public static final int UNSIZED_ROOMS_VERSION = 2;
+    public static final int LEGACY_VERSION = 1;
+    public static final int OTHER_DEPARTMENT = 0xFF;
+    private static final int HEADER_BYTES = 40;
+    private static final int LEGACY_HEADER_BYTES = 16;
+
+    private final File file;
+    private final int version;
+    private final long baseGeneration;
+    private MappedByteBuffer buffer;
+    private int studentCount;
+    private int roomCount;
+    private int rollNumbersOffset;
+    private int nameOffsetsOffset;
+    private int departmentsOffset;
+    private int presentOffset;
+    private int roomNumbersOffset;
+    private int roomCapacitiesOffset;
+    private int memberOffsetsOffset;
+    private int membersOffset;
+    private int namesOffset;
+    private final IntObjectMap<String> otherDepartments = new IntObjectMap<>();
+
+    private StudentSnapshot(File file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot is too large to map.");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.limit() < LEGACY_HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Unsupported snapshot format.");
+        }
+        version = buffer.getInt(4);
+        baseGeneration = buffer.getLong(8);
+        if (version == LEGACY_VERSION) {
+            buffer = null;
+            return;
+        }
+        if (version != VERSION && version != UNSIZED_ROOMS_VERSION) {
+            throw new IOException("Unsupported snapshot version " + version + ".");
+        }
+
+        studentCount = buffer.getInt(16);
+        roomCount = buffer.getInt(20);
+        int memberCount = buffer.getInt(24);
+        int otherDepartmentCount = buffer.getInt(28);
+
+        rollNumbersOffset = HEADER_BYTES;
+        nameOffsetsOffset = rollNumbersOffset + studentCount * 4;
+        departmentsOffset = nameOffsetsOffset + (studentCount + 1) * 4;
+        presentOffset = departmentsOffset + studentCount;
+        roomNumbersOffset = presentOffset + ((studentCount + 63) >>> 6) * 8;
+        roomCapacitiesOffset = roomNumbersOffset + roomCount * 4;
+        memberOffsetsOffset = version == UNSIZED_ROOMS_VERSION ? roomCapacitiesOffset : roomCapacitiesOffset + roomCount * 4;
+        membersOffset = memberOffsetsOffset + (roomCount + 1) * 4;
+
+        int position = membersOffset + memberCount * 4;
+        for (int i = 0; i < otherDepartmentCount; i++) {
+            int student = buffer.getInt(position);
+            int length = buffer.getShort(position + 4) & 0xFFFF;
+            byte[] bytes = new byte[length];
+            buffer.get(position + 6, bytes);
+            otherDepartments.put(student, new String(bytes, StandardCharsets.UTF_8));
+            position += 6 + length;
+        }
+        namesOffset = position;
+    }
+
+    // Returns null if there is no snapshot file
+    public static StudentSnapshot open(File file) throws IOException {
+        return file.exists() ? new StudentSnapshot(file) : null;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public long getBaseGeneration() {
+        return baseGeneration;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getRollNumber(int student) {
+        return buffer.getInt(rollNumbersOffset + student * 4);
+    }
+
+    public String getName(int student) {
+        return new String(getNameBytes(student), StandardCharsets.UTF_8);
+    }
+
+    public int getNameBlobLength() {
+        return buffer.limit() - namesOffset;
+    }
+
+    public int getNameOffset(int student) {
+        return buffer.getInt(nameOffsetsOffset + student * 4);
+    }
+
+    // Copies the names of every student, back to back, into the array
+    public void copyNameBlob(byte[] target) {
+        buffer.get(namesOffset, target, 0, getNameBlobLength());
+    }
+
+    public byte[] getNameBytes(int student) {
+        int start = buffer.getInt(nameOffsetsOffset + student * 4);
+        int end = buffer.getInt(nameOffsetsOffset + (student + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(namesOffset + start, bytes);
+        return bytes;
+    }
+
+    // Null if the student was saved with a department that is not a Department value
+    public Department getDepartment(int student) {
+        int ordinal = buffer.get(departmentsOffset + student) & 0xFF;
+        return ordinal == OTHER_DEPARTMENT ? Department.parse(otherDepartments.get(student)) : Department.values()[ordinal];
+    }
+
+    public boolean isPresent(int student) {
+        return (buffer.getLong(presentOffset + (student >>> 6) * 8) & (1L << student)) != 0;
+    }
+
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    public int getRoomNumber(int room) {
+        return buffer.getInt(roomNumbersOffset + room * 4);
+    }
+
+    public int getRoomCapacity(int room) {
+        return version == UNSIZED_ROOMS_VERSION ? Room.DEFAULT_CAPACITY : buffer.getInt(roomCapacitiesOffset + room * 4);
+    }
+
+    public int getMemberCount(int room) {
+        return buffer.getInt(memberOffsetsOffset + (room + 1) * 4) - buffer.getInt(memberOffsetsOffset + room * 4);
+    }
+
+    public int getMemberRollNumber(int room, int member) {
+        return buffer.getInt(membersOffset + (buffer.getInt(memberOffsetsOffset + room * 4) + member) * 4);
+    }
+
+    // Replays the journal records held by a version 1 snapshot
+    public void replayLegacyRecords(Consumer<JournalRecord> target) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            in.skipBytes(LEGACY_HEADER_BYTES);
+            JournalRecord record;
+            while ((record = JournalRecord.readFrom(in)) != null) {
+                target.accept(record);
+            }
+        }
+    }
+}
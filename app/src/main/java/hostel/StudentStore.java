@@ -0,0 +1,32 @@
+package hostel;
+
+// The student roster together with its lookups by roll number and by department.
+// Iteration is in roster order, which is the order students were added in.
+interface StudentStore extends Iterable<Student> {
+    int size();
+
+    boolean isEmpty();
+
+    boolean contains(int rollNumber);
+
+    // Returns null if there is no student with the roll number
+    Student get(int rollNumber);
+
+    // Returns the instance that is now held by the store, which is not always the one passed in
+    Student add(Student student);
+
+    // Returns the removed student, or null if there was none
+    Student remove(int rollNumber);
+
+    void update(Student student, String name, Department department);
+
+    int count(Department department);
+
+    // Students of the department in roster order; only that department is visited
+    Iterable<Student> byDepartment(Department department);
+
+    // Adds every student of the snapshot, skipping those saved with an invalid department
+    void load(StudentSnapshot snapshot);
+
+    void clear();
+}
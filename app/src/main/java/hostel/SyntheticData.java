@@ -0,0 +1,31 @@
+package hostel;
+
+import java.io.*;
+
+// Writes student_data.txt and attendance.txt with generated students, in the formats the
+// management system seeds itself from. The same seed always produces the same files.
+class SyntheticData {
+    public static final int FIRST_ROLL_NUMBER = 10000;
+
+    public static void write(File directory, int count, long seed) throws IOException {
+        java.util.Random random = new java.util.Random(seed);
+        Department[] departments = Department.values();
+        char[] name = new char[12];
+        try (BufferedWriter students = new BufferedWriter(new FileWriter(new File(directory, "student_data.txt")), 1 << 16);
+             BufferedWriter attendance = new BufferedWriter(new FileWriter(new File(directory, "attendance.txt")), 1 << 16)) {
+            for (int i = 0; i < count; i++) {
+                int length = 4 + random.nextInt(name.length - 3);
+                name[0] = (char) ('A' + random.nextInt(26));
+                for (int c = 1; c < length; c++) {
+                    name[c] = (char) ('a' + random.nextInt(26));
+                }
+                int rollNumber = FIRST_ROLL_NUMBER + i;
+                students.write(name, 0, length);
+                students.write("," + rollNumber + "," + departments[random.nextInt(departments.length)]);
+                students.newLine();
+                attendance.write(rollNumber + (random.nextInt(10) < 9 ? ",P" : ",A"));
+                attendance.newLine();
+            }
+        }
+    }
+}
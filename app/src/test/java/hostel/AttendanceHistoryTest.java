@@ -0,0 +1,77 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceHistoryTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void keepsTodaysMarksAcrossReopen() throws IOException {
+        AttendanceHistory history = new AttendanceHistory(directory);
+        history.open();
+        history.record(100, true);
+        history.record(200, false);
+        history.record(100, false);
+        history.close();
+
+        AttendanceHistory reopened = new AttendanceHistory(directory);
+        reopened.open();
+        LocalDate today = LocalDate.now();
+        assertEquals(1, reopened.getRecordedDays().size());
+        assertEquals(100, reopened.getRollNumber(0));
+        assertEquals(0L, reopened.getPresent(today)[0]);
+        assertEquals(0b11L, reopened.getAbsent(today)[0]);
+        assertArrayEquals(new int[] {0, 1}, reopened.countMonth(YearMonth.now(), 100));
+        assertArrayEquals(new long[] {0, 2}, reopened.countMonth(YearMonth.now()));
+        reopened.close();
+    }
+
+    // Growing the today file past its first capacity keeps every earlier mark
+    @Test
+    void growsTodayWithoutLosingMarks() throws IOException {
+        AttendanceHistory history = new AttendanceHistory(directory);
+        history.open();
+        for (int rollNumber = 0; rollNumber < 10_000; rollNumber++) {
+            history.record(rollNumber, rollNumber % 3 != 0);
+        }
+        history.close();
+        assertFalse(new File(directory, "attendance_today.dat.tmp").exists());
+
+        AttendanceHistory reopened = new AttendanceHistory(directory);
+        reopened.open();
+        long[] present = reopened.getPresent(LocalDate.now());
+        long[] absent = reopened.getAbsent(LocalDate.now());
+        for (int ordinal = 0; ordinal < 10_000; ordinal++) {
+            boolean isPresent = (present[ordinal >>> 6] & (1L << ordinal)) != 0;
+            boolean isAbsent = (absent[ordinal >>> 6] & (1L << ordinal)) != 0;
+            assertEquals(ordinal % 3 != 0, isPresent);
+            assertEquals(ordinal % 3 == 0, isAbsent);
+        }
+        assertArrayEquals(new long[] {6_666, 10_000}, reopened.countMonth(YearMonth.now()));
+        reopened.close();
+    }
+
+    @Test
+    void clearForgetsStudentsAndDays() throws IOException {
+        AttendanceHistory history = new AttendanceHistory(directory);
+        history.open();
+        history.record(1, false);
+        history.clear();
+        assertTrue(history.getRecordedDays().isEmpty());
+        assertNull(history.getAbsent(LocalDate.now()));
+        assertArrayEquals(new int[] {0, 0}, history.countMonth(YearMonth.now(), 1));
+        history.close();
+    }
+}
@@ -0,0 +1,105 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressedBitmapTest {
+    @Test
+    void roundTripsRunsAndLiterals() {
+        long[][] bitmaps = {
+            {},
+            {0L, 0L, 0L},
+            {-1L, -1L},
+            {5L},
+            {0L, 0L, 7L, -1L, -1L, 9L, 11L, 0L},
+            {-1L, 0L, -1L, 0L},
+            {1L << 63, 0L, 0L, 0L, 0L, 1L},
+        };
+        for (long[] words : bitmaps) {
+            assertArrayEquals(words, roundTrip(words));
+        }
+    }
+
+    // Long runs of empty or full words collapse into a single header word
+    @Test
+    void compressesRuns() {
+        long[] words = new long[10_000];
+        Arrays.fill(words, 5_000, 10_000, -1L);
+        words[7_000] = 3L;
+        long[] encoded = CompressedBitmap.compress(words, words.length);
+        assertEquals(4, encoded.length);
+        assertArrayEquals(words, roundTrip(words));
+    }
+
+    @Test
+    void roundTripsRandomSparseAndDenseBitmaps() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            long[] words = randomBitmap(random, 1 + random.nextInt(500));
+            assertArrayEquals(words, roundTrip(words));
+        }
+    }
+
+    // Only the given length is encoded, and decoding from a slice leaves the rest of the output alone
+    @Test
+    void decodesPrefixIntoLargerOutput() {
+        long[] words = {0L, 42L, -1L, 99L};
+        long[] encoded = CompressedBitmap.compress(words, 3);
+        long[] buffer = new long[encoded.length + 2];
+        System.arraycopy(encoded, 0, buffer, 2, encoded.length);
+        long[] out = new long[6];
+        out[5] = 77L;
+        CompressedBitmap.decompress(LongBuffer.wrap(buffer, 2, encoded.length).slice(), encoded.length, out);
+        assertArrayEquals(new long[] {0L, 42L, -1L, 0L, 0L, 77L}, out);
+    }
+
+    // Days are combined word by word after decoding, as the absence streaks and month counts do
+    @Test
+    void decodedBitmapsCombineLikeTheOriginals() {
+        Random random = new Random(23);
+        for (int trial = 0; trial < 100; trial++) {
+            int length = 1 + random.nextInt(300);
+            long[] present = randomBitmap(random, length);
+            long[] absent = randomBitmap(random, length);
+            long[] decodedPresent = roundTrip(present);
+            long[] decodedAbsent = roundTrip(absent);
+            for (int i = 0; i < length; i++) {
+                assertEquals(present[i] & absent[i], decodedPresent[i] & decodedAbsent[i]);
+                assertEquals(present[i] | absent[i], decodedPresent[i] | decodedAbsent[i]);
+            }
+            long[] both = new long[length];
+            for (int i = 0; i < length; i++) {
+                both[i] = present[i] & absent[i];
+            }
+            assertArrayEquals(both, roundTrip(both));
+            assertTrue(CompressedBitmap.compress(both, length).length <= length + 1);
+        }
+    }
+
+    private static long[] roundTrip(long[] words) {
+        long[] encoded = CompressedBitmap.compress(words, words.length);
+        long[] decoded = new long[words.length];
+        CompressedBitmap.decompress(LongBuffer.wrap(encoded), encoded.length, decoded);
+        return decoded;
+    }
+
+    // Mixes runs of empty and full words with literals, as a roster of sorted roll numbers does
+    private static long[] randomBitmap(Random random, int length) {
+        long[] words = new long[length];
+        int i = 0;
+        while (i < length) {
+            int run = Math.min(length - i, 1 + random.nextInt(20));
+            int kind = random.nextInt(3);
+            for (int j = 0; j < run; j++, i++) {
+                words[i] = kind == 0 ? 0L : kind == 1 ? -1L : random.nextLong();
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,148 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskStudentStoreTest {
+    private static final int PAGE_SIZE = 4096;
+    private static final int PENDING_MAGIC = 0x484D5350;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void reopensWithEveryRow() throws IOException {
+        DiskStudentStore store = DiskStudentStore.open(directory, 64);
+        addStudents(store, 0, 3000);
+        store.remove(10);
+        store.update(store.get(11), "Renamed", Department.CYS);
+        store.setPresent(12, false);
+        store.close();
+
+        DiskStudentStore reopened = DiskStudentStore.open(directory, 64);
+        assertEquals(2999, reopened.size());
+        assertFalse(reopened.contains(10));
+        assertEquals("Renamed", reopened.getName(11));
+        assertEquals(Department.CYS, reopened.getDepartment(11));
+        assertFalse(reopened.isPresent(12));
+        assertEquals(expectedRollNumbers(0, 3000, 10), rollNumbers(reopened));
+        reopened.close();
+    }
+
+    @Test
+    void scansFromRollNumberInOrder() throws IOException {
+        DiskStudentStore store = DiskStudentStore.open(directory, 64);
+        for (int rollNumber = 2999; rollNumber >= 0; rollNumber -= 3) {
+            store.add(new Student("Student", rollNumber, Department.AIE));
+        }
+        Iterator<Student> students = store.scanFrom(1000);
+        assertEquals(1001, students.next().getRollNumber());
+        assertEquals(1004, students.next().getRollNumber());
+        store.close();
+    }
+
+    // A crash while the pending file was being written leaves the tree as of the last checkpoint
+    @Test
+    void ignoresTornPendingFile() throws IOException {
+        DiskStudentStore store = DiskStudentStore.open(directory, 64);
+        addStudents(store, 0, 2000);
+        store.close();
+
+        byte[] torn = new byte[3 * (4 + PAGE_SIZE) + 7];
+        Arrays.fill(torn, (byte) 0x5A);
+        Files.write(pendingFile().toPath(), torn);
+
+        DiskStudentStore reopened = DiskStudentStore.open(directory, 64);
+        assertEquals(expectedRollNumbers(0, 2000, -1), rollNumbers(reopened));
+        assertEquals(0, pendingFile().length());
+        reopened.close();
+    }
+
+    // A crash while pages were written in place is repaired from the complete pending file
+    @Test
+    void replaysPendingFileOverTornTree() throws IOException {
+        DiskStudentStore store = DiskStudentStore.open(directory, 64);
+        addStudents(store, 0, 2000);
+        store.close();
+        byte[] before = Files.readAllBytes(treeFile().toPath());
+
+        store = DiskStudentStore.open(directory, 64);
+        addStudents(store, 2000, 4000);
+        store.remove(5);
+        store.close();
+        byte[] after = Files.readAllBytes(treeFile().toPath());
+
+        // The checkpoint had forced every page to the pending file, then wrote only part of them in place
+        writePendingFile(after);
+        byte[] tornTree = Arrays.copyOf(before, after.length);
+        System.arraycopy(after, PAGE_SIZE, tornTree, PAGE_SIZE, PAGE_SIZE * 2);
+        Files.write(treeFile().toPath(), tornTree);
+
+        DiskStudentStore reopened = DiskStudentStore.open(directory, 64);
+        assertEquals(3999, reopened.size());
+        assertNull(reopened.get(5));
+        assertEquals(expectedRollNumbers(0, 4000, 5), rollNumbers(reopened));
+        reopened.close();
+        assertArrayEquals(after, Files.readAllBytes(treeFile().toPath()));
+    }
+
+    private void writePendingFile(byte[] tree) throws IOException {
+        int pages = tree.length / PAGE_SIZE;
+        ByteBuffer pending = ByteBuffer.allocate(pages * (4 + PAGE_SIZE) + 16);
+        CRC32 crc = new CRC32();
+        for (int page = 0; page < pages; page++) {
+            int start = pending.position();
+            pending.putInt(page).put(tree, page * PAGE_SIZE, PAGE_SIZE);
+            crc.update(pending.array(), start, 4 + PAGE_SIZE);
+        }
+        pending.putInt(PENDING_MAGIC).putInt(pages).putLong(crc.getValue());
+        Files.write(pendingFile().toPath(), pending.array());
+    }
+
+    private File treeFile() {
+        return new File(directory, DiskStudentStore.FILE_NAME);
+    }
+
+    private File pendingFile() {
+        return new File(directory, DiskStudentStore.FILE_NAME + ".pending");
+    }
+
+    private static void addStudents(DiskStudentStore store, int from, int to) {
+        Department[] departments = Department.values();
+        for (int rollNumber = from; rollNumber < to; rollNumber++) {
+            store.add(new Student("Student" + (char) ('a' + rollNumber % 26), rollNumber, departments[rollNumber % departments.length]));
+        }
+    }
+
+    private static List<Integer> expectedRollNumbers(int from, int to, int removed) {
+        List<Integer> rollNumbers = new ArrayList<>();
+        for (int rollNumber = from; rollNumber < to; rollNumber++) {
+            if (rollNumber != removed) {
+                rollNumbers.add(rollNumber);
+            }
+        }
+        return rollNumbers;
+    }
+
+    private static List<Integer> rollNumbers(DiskStudentStore store) {
+        List<Integer> rollNumbers = new ArrayList<>();
+        for (Student student : store) {
+            rollNumbers.add(student.getRollNumber());
+        }
+        return rollNumbers;
+    }
+}
@@ -0,0 +1,85 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HostelManagementSystemTest {
+    @TempDir
+    File directory;
+
+    @AfterEach
+    void clearStoreMode() {
+        System.clearProperty("hostel.store");
+    }
+
+    // Pages follow roll number order however students were added and removed in between
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar", "disk"})
+    void pagesStudentsInRollNumberOrder(String storeMode) {
+        System.setProperty("hostel.store", storeMode);
+        HostelManagementSystem system = new HostelManagementSystem(directory);
+        for (int rollNumber : new int[] {50, 30, 90, 10, 70}) {
+            system.addStudent("Student", rollNumber, Department.CSE);
+        }
+        assertEquals(List.of(10, 30, 50, 70, 90), rollNumbers(system.listStudentsAfter(-1, 10)));
+
+        system.addStudent("Student", 110, Department.AIE);
+        system.addStudent("Student", 40, Department.AIE);
+        system.removeStudent(50);
+        assertEquals(List.of(40, 70), rollNumbers(system.listStudentsAfter(30, 2)));
+        assertEquals(List.of(90, 110), rollNumbers(system.listStudentsAfter(70, 10)));
+        assertEquals(List.of(), rollNumbers(system.listStudentsAfter(110, 10)));
+        system.close();
+    }
+
+    @Test
+    void keepsStudentsAcrossRestart() {
+        HostelManagementSystem system = new HostelManagementSystem(directory);
+        system.addStudent("Asha", 10001, Department.CSE);
+        system.addStudent("Ravi", 10002, Department.AIE);
+        system.removeStudent(10002);
+        system.close();
+
+        HostelManagementSystem reopened = new HostelManagementSystem(directory);
+        assertEquals(List.of(10001), rollNumbers(reopened.listStudentsAfter(-1, 10)));
+        assertEquals("Asha", reopened.getStudentByRollNumber(10001).getName());
+        reopened.close();
+    }
+
+    // A rejected name leaves the student untouched, in memory and after a restart
+    @Test
+    void rejectsInvalidNamesOnModify() {
+        HostelManagementSystem system = new HostelManagementSystem(directory);
+        system.addStudent("Asha", 10001, Department.CSE);
+        assertFalse(system.modifyStudent(10001, null, Department.AIE).isSuccess());
+        assertFalse(system.modifyStudent(10001, "Asha2", Department.AIE).isSuccess());
+        assertFalse(system.modifyStudent(10001, "A".repeat(1025), Department.AIE).isSuccess());
+        assertFalse(system.addStudent("A".repeat(1025), 10002, Department.AIE).isSuccess());
+        assertTrue(system.modifyStudent(10001, "Meera", Department.CYS).isSuccess());
+        system.close();
+
+        HostelManagementSystem reopened = new HostelManagementSystem(directory);
+        Student student = reopened.getStudentByRollNumber(10001);
+        assertEquals("Meera", student.getName());
+        assertEquals(Department.CYS, student.getDepartment());
+        reopened.close();
+    }
+
+    private static List<Integer> rollNumbers(List<Student> students) {
+        List<Integer> rollNumbers = new ArrayList<>();
+        for (Student student : students) {
+            rollNumbers.add(student.getRollNumber());
+        }
+        return rollNumbers;
+    }
+}
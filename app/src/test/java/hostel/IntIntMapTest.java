@@ -0,0 +1,60 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntIntMapTest {
+    // Zero is stored as 1 internally, so it must not read back as a missing key
+    @Test
+    void storesZeroValues() {
+        IntIntMap map = new IntIntMap();
+        map.put(3, 0);
+        assertEquals(0, map.get(3));
+        assertEquals(-1, map.get(4));
+        assertEquals(0, map.remove(3));
+        assertEquals(-1, map.get(3));
+        assertThrows(IllegalArgumentException.class, () -> map.put(5, -1));
+    }
+
+    @Test
+    void removeKeepsProbeChainsReachable() {
+        IntIntMap map = new IntIntMap();
+        for (int key = 0; key < 1000; key++) {
+            map.put(key * 16, key);
+        }
+        for (int key = 1; key < 1000; key += 2) {
+            assertEquals(key, map.remove(key * 16));
+        }
+        assertEquals(500, map.size());
+        for (int key = 0; key < 1000; key++) {
+            assertEquals(key % 2 == 0 ? key : -1, map.get(key * 16));
+        }
+        assertEquals(-1, map.remove(16));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(4096);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? -1 : removed, map.remove(key));
+            } else {
+                expected.put(key, i);
+                map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 4096; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.get(key));
+        }
+    }
+}
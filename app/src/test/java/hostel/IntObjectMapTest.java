@@ -0,0 +1,79 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntObjectMapTest {
+    @Test
+    void putGetAndReplace() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        assertNull(map.put(7, "a"));
+        assertEquals("a", map.put(7, "b"));
+        assertEquals("b", map.get(7));
+        assertNull(map.get(8));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(9, null));
+    }
+
+    // Removing from the middle of probe chains must leave every later key reachable
+    @Test
+    void removeKeepsProbeChainsReachable() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int key = 0; key < 1000; key++) {
+            map.put(key * 16, key);
+        }
+        for (int key = 0; key < 1000; key += 2) {
+            assertEquals(key, map.remove(key * 16));
+        }
+        assertEquals(500, map.size());
+        for (int key = 0; key < 1000; key++) {
+            if (key % 2 == 0) {
+                assertFalse(map.containsKey(key * 16));
+            } else {
+                assertEquals(key, map.get(key * 16));
+            }
+        }
+        assertNull(map.remove(0));
+    }
+
+    @Test
+    void matchesHashMapUnderRandomChurn() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(4096) - 2048;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = -2048; key < 2048; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void clearForgetsEveryKey() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        for (int key = 0; key < 100; key++) {
+            map.put(key, "v" + key);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        for (int key = 0; key < 100; key++) {
+            assertNull(map.get(key));
+        }
+        map.put(5, "again");
+        assertEquals("again", map.get(5));
+    }
+}
@@ -0,0 +1,99 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MutationJournalTest {
+    @TempDir
+    File directory;
+
+    @Test
+    void replaysEveryRecordWithoutSnapshot() throws IOException {
+        MutationJournal journal = new MutationJournal(directory);
+        assertFalse(journal.exists());
+        journal.start();
+        journal.commit(JournalRecord.addStudent(new Student("Asha", 1, Department.CSE)));
+        journal.commit(JournalRecord.allocateRoom(101, 1));
+        journal.commit(JournalRecord.markAttendance(1, false));
+        journal.close();
+
+        MutationJournal reopened = new MutationJournal(directory);
+        assertTrue(reopened.exists());
+        assertNull(reopened.openSnapshot());
+        List<JournalRecord> records = replay(reopened);
+        assertEquals(3, records.size());
+        assertEquals(MutationType.ADD_STUDENT, records.get(0).getType());
+        assertEquals("Asha", records.get(0).getName());
+        assertEquals(Department.CSE, records.get(0).getDepartment());
+        assertEquals(101, records.get(1).getRoomNumber());
+        assertFalse(records.get(2).isPresent());
+        reopened.close();
+    }
+
+    // Records folded into the snapshot are not replayed again, and the segments holding them are deleted
+    @Test
+    void replaysOnlyRecordsAfterCompaction() throws IOException {
+        MutationJournal journal = new MutationJournal(directory);
+        journal.start();
+        HeapStudentStore store = new HeapStudentStore();
+        for (int rollNumber = 1; rollNumber <= 3; rollNumber++) {
+            Student student = store.add(new Student("Student", rollNumber, Department.AIE));
+            journal.commit(JournalRecord.addStudent(student));
+        }
+        journal.compact(HostelSnapshot.capture(store, Collections.emptyList()));
+        assertTrue(journal.awaitCompaction());
+        journal.commit(JournalRecord.addStudent(new Student("Later", 4, Department.CYS)));
+        journal.commit(JournalRecord.removeStudent(1));
+        journal.close();
+
+        MutationJournal reopened = new MutationJournal(directory);
+        StudentSnapshot snapshot = reopened.openSnapshot();
+        assertNotNull(snapshot);
+        assertEquals(3, snapshot.getStudentCount());
+        HeapStudentStore restored = new HeapStudentStore();
+        restored.load(snapshot);
+        assertNotNull(restored.get(3));
+
+        List<JournalRecord> records = replay(reopened);
+        assertEquals(2, records.size());
+        assertEquals(MutationType.ADD_STUDENT, records.get(0).getType());
+        assertEquals(4, records.get(0).getRollNumber());
+        assertEquals(MutationType.REMOVE_STUDENT, records.get(1).getType());
+        assertEquals(1, records.get(1).getRollNumber());
+        reopened.close();
+
+        String[] segments = directory.list((dir, name) -> name.startsWith("hostel_journal."));
+        assertNotNull(segments);
+        assertEquals(1, segments.length);
+    }
+
+    // A record that never reached the disk must not be reported as durable
+    @Test
+    void syncAfterCloseThrows() throws IOException {
+        MutationJournal journal = new MutationJournal(directory);
+        journal.start();
+        journal.commit(JournalRecord.removeStudent(1));
+        journal.close();
+        long sequence = journal.append(JournalRecord.removeStudent(2));
+        assertThrows(UncheckedIOException.class, () -> journal.sync(sequence));
+    }
+
+    private static List<JournalRecord> replay(MutationJournal journal) throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+}
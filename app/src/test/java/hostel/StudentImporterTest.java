@@ -0,0 +1,81 @@
+package hostel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StudentImporterTest {
+    private static final String DATA = "Asha,10001,CSE\n"
+            + "Ravi,10002,aie\r\n"
+            + "\n"
+            + "Bad,12,CSE\n"
+            + "Meera,10003,CYS\n"
+            + "NoDepartment,10004\n"
+            + ",10005,CSE\n"
+            + "Kiran,10006,ECE\n"
+            + "Lakshmi,10007,CSE";
+
+    @TempDir
+    File directory;
+
+    @Test
+    void parsesRowsAndReportsBadOnes() throws IOException {
+        ImportResult result = new StudentImporter().importFile(write(DATA));
+        assertEquals(List.of("Asha 10001 CSE", "Ravi 10002 AIE", "Meera 10003 CYS", "Lakshmi 10007 CSE"), rows(result));
+        assertEquals(List.of(
+                "Line 4: Invalid roll number. Roll number must be 5 digits.",
+                "Line 6: Expected name, roll number and department.",
+                "Line 7: Name is empty.",
+                "Line 8: Invalid department. Expected one of AIE, CSE or CYS."), result.getErrors());
+    }
+
+    // Every chunk size puts chunk edges inside rows, right after a newline and right before one
+    @Test
+    void rowsAcrossChunkEdgesAreParsedOnce() throws IOException {
+        File file = write(DATA);
+        ImportResult whole = new StudentImporter().importFile(file);
+        for (int chunkBytes = 1; chunkBytes <= DATA.length() + 1; chunkBytes++) {
+            ImportResult chunked = new StudentImporter(chunkBytes).importFile(file);
+            assertEquals(rows(whole), rows(chunked), "chunk size " + chunkBytes);
+            assertEquals(whole.getErrors(), chunked.getErrors(), "chunk size " + chunkBytes);
+        }
+    }
+
+    @Test
+    void largeFileAcrossManyChunks() throws IOException {
+        StringBuilder data = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        Department[] departments = Department.values();
+        for (int i = 0; i < 5_000; i++) {
+            String name = "Student" + (char) ('a' + i % 26);
+            int rollNumber = 10_000 + i;
+            Department department = departments[i % departments.length];
+            data.append(name).append(',').append(rollNumber).append(',').append(department).append('\n');
+            expected.add(name + " " + rollNumber + " " + department);
+        }
+        ImportResult result = new StudentImporter(4099).importFile(write(data.toString()));
+        assertEquals(expected, rows(result));
+        assertEquals(List.of(), result.getErrors());
+    }
+
+    private File write(String data) throws IOException {
+        File file = new File(directory, "import.csv");
+        Files.write(file.toPath(), data.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<String> rows(ImportResult result) {
+        List<String> rows = new ArrayList<>();
+        for (Student student : result.getStudents()) {
+            rows.add(student.getName() + " " + student.getRollNumber() + " " + student.getDepartment());
+        }
+        return rows;
+    }
+}
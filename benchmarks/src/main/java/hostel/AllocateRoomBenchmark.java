@@ -0,0 +1,102 @@
+package hostel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Several threads allocating at once inside a batch, into rooms past those already filled four
+// to a room. The students are taken out of them again before each invocation, untimed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AllocateRoomBenchmark {
+    private static final int ALLOCATIONS_PER_INVOCATION = 4096;
+    private static final int ALLOCATING_THREADS = 4;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private File data;
+    private File scratch;
+    private PrintStream out;
+    private HostelManagementSystem system;
+    private ExecutorService threads;
+    private int firstRoom;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        out = BenchmarkData.silence();
+        data = BenchmarkData.generate(size);
+        scratch = BenchmarkData.scratch();
+        system = new HostelManagementSystem(scratch);
+        system.loadStudentData(new File(data, "student_data.txt"));
+        system.beginBatch();
+        for (int i = ALLOCATIONS_PER_INVOCATION; i < size; i++) {
+            system.allocateRoom(1 + i / 4, SyntheticData.FIRST_ROLL_NUMBER + i);
+        }
+        system.endBatch();
+        firstRoom = size / 4 + 2;
+        threads = Executors.newFixedThreadPool(ALLOCATING_THREADS);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        threads.shutdown();
+        system.close();
+        BenchmarkData.delete(scratch);
+        BenchmarkData.delete(data);
+        System.setOut(out);
+    }
+
+    @Setup(Level.Invocation)
+    public void deallocate() {
+        system.beginBatch();
+        for (int i = 0; i < ALLOCATIONS_PER_INVOCATION; i++) {
+            system.removeStudentFromRoom(firstRoom + i / 4, SyntheticData.FIRST_ROLL_NUMBER + i);
+        }
+        system.endBatch();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ALLOCATIONS_PER_INVOCATION)
+    public void allocateRoom() throws InterruptedException, ExecutionException {
+        system.beginBatch();
+        List<Future<?>> futures = new ArrayList<>(ALLOCATING_THREADS);
+        for (int t = 0; t < ALLOCATING_THREADS; t++) {
+            int thread = t;
+            futures.add(threads.submit(() -> {
+                for (int i = thread; i < ALLOCATIONS_PER_INVOCATION; i += ALLOCATING_THREADS) {
+                    system.allocateRoom(firstRoom + i / 4, SyntheticData.FIRST_ROLL_NUMBER + i);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        system.endBatch();
+    }
+}
@@ -0,0 +1,47 @@
+package hostel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+
+// Synthetic data files and scratch directories for the benchmarks
+final class BenchmarkData {
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private BenchmarkData() {
+    }
+
+    // student_data.txt and attendance.txt for the given number of students, the same for every run
+    static File generate(int size) throws IOException {
+        File directory = Files.createTempDirectory("hostel-bench-data").toFile();
+        SyntheticData.write(directory, size, size);
+        return directory;
+    }
+
+    static File scratch() throws IOException {
+        return Files.createTempDirectory("hostel-bench").toFile();
+    }
+
+    // Output of the code under test would swamp the results
+    static PrintStream silence() {
+        PrintStream out = System.out;
+        System.setOut(DISCARD);
+        return out;
+    }
+
+    static void delete(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    delete(file);
+                } else {
+                    file.delete();
+                }
+            }
+        }
+        directory.delete();
+    }
+}
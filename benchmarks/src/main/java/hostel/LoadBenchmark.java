@@ -0,0 +1,104 @@
+package hostel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Seeding a freshly opened system from the text files. Each invocation gets a new system in an
+// empty scratch directory; opening it is not timed.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data {
+        @Param({"10000", "100000", "1000000"})
+        public int size;
+
+        File directory;
+        File studentData;
+        File attendanceData;
+        PrintStream out;
+
+        @Setup(Level.Trial)
+        public void generate() throws IOException {
+            out = BenchmarkData.silence();
+            directory = BenchmarkData.generate(size);
+            studentData = new File(directory, "student_data.txt");
+            attendanceData = new File(directory, "attendance.txt");
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() {
+            BenchmarkData.delete(directory);
+            System.setOut(out);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Empty {
+        File scratch;
+        HostelManagementSystem system;
+
+        @Setup(Level.Invocation)
+        public void open() throws IOException {
+            scratch = BenchmarkData.scratch();
+            system = new HostelManagementSystem(scratch);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            system.close();
+            BenchmarkData.delete(scratch);
+        }
+    }
+
+    // Holds the students, so only their attendance is left to load
+    @State(Scope.Thread)
+    public static class WithStudents {
+        File scratch;
+        HostelManagementSystem system;
+
+        @Setup(Level.Invocation)
+        public void open(Data data) throws IOException {
+            scratch = BenchmarkData.scratch();
+            system = new HostelManagementSystem(scratch);
+            system.loadStudentData(data.studentData);
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            system.close();
+            BenchmarkData.delete(scratch);
+        }
+    }
+
+    @Benchmark
+    public HostelManagementSystem loadStudentData(Data data, Empty state) {
+        state.system.loadStudentData(data.studentData);
+        return state.system;
+    }
+
+    @Benchmark
+    public HostelManagementSystem loadAttendanceData(Data data, WithStudents state) {
+        state.system.loadAttendanceData(data.attendanceData);
+        return state.system;
+    }
+}
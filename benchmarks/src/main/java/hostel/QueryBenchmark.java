@@ -0,0 +1,119 @@
+package hostel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+// Lookups, the attendance rewrite and the department report, rendered afresh and from the
+// cache, over a loaded system with four students to a room
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryBenchmark {
+    private static final int LOOKUPS_PER_INVOCATION = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    private File data;
+    private File scratch;
+    private PrintStream out;
+    private HostelManagementSystem system;
+    private final int[] rollNumbers = new int[LOOKUPS_PER_INVOCATION];
+    private final int[] roomNumbers = new int[LOOKUPS_PER_INVOCATION];
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        out = BenchmarkData.silence();
+        data = BenchmarkData.generate(size);
+        scratch = BenchmarkData.scratch();
+        system = new HostelManagementSystem(scratch);
+        system.loadStudentData(new File(data, "student_data.txt"));
+        system.loadAttendanceData(new File(data, "attendance.txt"));
+        system.beginBatch();
+        for (int i = 0; i < size; i++) {
+            system.allocateRoom(1 + i / 4, SyntheticData.FIRST_ROLL_NUMBER + i);
+        }
+        system.endBatch();
+
+        Random random = new Random(size);
+        int rooms = Math.max(size / 4, 1);
+        for (int i = 0; i < LOOKUPS_PER_INVOCATION; i++) {
+            rollNumbers[i] = SyntheticData.FIRST_ROLL_NUMBER + random.nextInt(size);
+            roomNumbers[i] = 1 + random.nextInt(rooms);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        system.close();
+        BenchmarkData.delete(scratch);
+        BenchmarkData.delete(data);
+        System.setOut(out);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS_PER_INVOCATION)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void getStudentByRollNumber(Blackhole blackhole) {
+        for (int rollNumber : rollNumbers) {
+            blackhole.consume(system.getStudentByRollNumber(rollNumber));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS_PER_INVOCATION)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void getRoomByNumber(Blackhole blackhole) {
+        for (int roomNumber : roomNumbers) {
+            blackhole.consume(system.getRoomByNumber(roomNumber));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void saveAttendanceData() {
+        system.saveAttendanceData();
+    }
+
+    // Renders every department from the store, as the first display after a change does
+    @State(Scope.Thread)
+    public static class ColdViews {
+        @Setup(Level.Invocation)
+        public void clear(QueryBenchmark benchmark) {
+            benchmark.system.clearRenderedViews();
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void displayStudentsByDepartment(ColdViews views) {
+        system.displayStudentsByDepartment();
+    }
+
+    // Repeated displays with nothing changed only copy the cached renderings
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void displayStudentsByDepartmentCached() {
+        system.displayStudentsByDepartment();
+    }
+}